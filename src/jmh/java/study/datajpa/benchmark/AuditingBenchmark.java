@@ -0,0 +1,125 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import study.datajpa.entity.AuditingFieldsListener;
+import study.datajpa.entity.Member;
+import study.datajpa.support.TransactionScopedAuditorAware;
+import study.datajpa.support.FlushScopedDateTimeProvider;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 감사(auditing) 필드 채우기 비용 - 8 스레드가 동시에 트랜잭션당 WRITES 번 저장/수정한다고 가정 (DB 없이 리스너가 하는 일만 측정)
+ * - perWrite       : 예전 설정 - AuditingHandler + 쓰기마다 UUID.randomUUID() (SecureRandom 공유) + LocalDateTime.now()
+ * - perTransaction : AuditingHandler + TransactionScopedAuditorAware (트랜잭션당) / FlushScopedDateTimeProvider (flush 당 - 여기선 flush 가 없어 트랜잭션당) 한 번
+ * - fieldsListener : AuditingFieldsListener (BaseTimeEntity 가 쓰는 것) - 같은 provider + 리플렉션 없이 필드 대입
+ * -prof gc 로 gc.alloc.rate.norm(쓰기 하나당 할당 바이트) 비교
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AuditingBenchmark {
+
+    static final int WRITES = 100;
+
+    ConfigurableApplicationContext context;
+    AuditingHandler perWriteHandler;
+    AuditingHandler perTransactionHandler;
+    AuditingFieldsListener fieldsListener;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        PersistentEntities entities = PersistentEntities.of(context.getBean("jpaMappingContext", MappingContext.class));
+
+        perWriteHandler = new AuditingHandler(entities);
+        perWriteHandler.setAuditorAware(() -> Optional.of(UUID.randomUUID().toString()));
+
+        TransactionScopedAuditorAware auditorAware = new TransactionScopedAuditorAware(() -> UUID.randomUUID().toString());
+        FlushScopedDateTimeProvider dateTimeProvider = new FlushScopedDateTimeProvider(Clock.systemDefaultZone());
+        perTransactionHandler = new AuditingHandler(entities);
+        perTransactionHandler.setAuditorAware(auditorAware);
+        perTransactionHandler.setDateTimeProvider(dateTimeProvider);
+
+        fieldsListener = new AuditingFieldsListener(auditorAware, dateTimeProvider);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Entity {
+        final Member member = new Member("audit", 10);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRITES)
+    public Member perWrite(Entity entity) {
+        return inTransaction(perWriteHandler, entity.member);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRITES)
+    public Member perTransaction(Entity entity) {
+        return inTransaction(perTransactionHandler, entity.member);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRITES)
+    public Member fieldsListener(Entity entity) {
+        Member member = entity.member;
+        beginTransaction();
+        try {
+            fieldsListener.touchForCreate(member);
+            for (int i = 1; i < WRITES; i++) {
+                fieldsListener.touchForUpdate(member);
+            }
+            return member;
+        } finally {
+            endTransaction();
+        }
+    }
+
+    private static Member inTransaction(AuditingHandler handler, Member member) {
+        beginTransaction();
+        try {
+            handler.markCreated(member);
+            for (int i = 1; i < WRITES; i++) {
+                handler.markModified(member);
+            }
+            return member;
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /** 트랜잭션 매니저 없이 동기화만 열고 닫음 - 세 방식 모두 같은 비용 **/
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void endTransaction() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
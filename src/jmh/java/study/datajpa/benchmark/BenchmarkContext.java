@@ -0,0 +1,80 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 - 웹 서버 없이 JPA만 띄우고 DB는 메모리 H2 (tcp 서버 필요 없음)
+ * SQL 로그는 측정값을 왜곡하기 때문에 끔
+ */
+final class BenchmarkContext {
+
+    private static final String IN_MEMORY_URL = "jdbc:h2:mem:bench-";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return requireInMemoryDatabase(builder()
+                .web(WebApplicationType.NONE)
+                .run(arguments(properties)));
+    }
+
+    /** 톰캣까지 띄움 (포트는 랜덤 - local.server.port) **/
+    static ConfigurableApplicationContext startServer(String... profiles) {
+        return requireInMemoryDatabase(builder()
+                .web(WebApplicationType.SERVLET)
+                .profiles(profiles)
+                .run(arguments("server.port=0")));
+    }
+
+    /** 설정이 어디선가 덮어써서 개발용 tcp DB 에 대고 재는 일이 없도록 - 메모리 H2 가 아니면 바로 실패 **/
+    private static ConfigurableApplicationContext requireInMemoryDatabase(ConfigurableApplicationContext context) {
+        String url = context.getEnvironment().getProperty("spring.datasource.url");
+        if (url == null || !url.startsWith(IN_MEMORY_URL)) {
+            context.close();
+            throw new IllegalStateException("Benchmarks must run against in-memory H2, but spring.datasource.url is " + url);
+        }
+        return context;
+    }
+
+    private static SpringApplicationBuilder builder() {
+        return new SpringApplicationBuilder(DataJpaApplication.class);
+    }
+
+    // builder.properties(...) 는 기본값이라 application.yml 에 있는 값(logging.level.org.hibernate.SQL: debug 등)에 밀림
+    // -> 커맨드라인 인자로 넘겨서 yml 보다 우선하게 함
+    private static String[] arguments(String... properties) {
+        return Stream.concat(
+                        Stream.of(
+                                "spring.datasource.url=" + IN_MEMORY_URL + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                                "spring.main.banner-mode=off",
+                                "logging.level.root=warn",
+                                "logging.level.org.hibernate.SQL=warn",
+                                "decorator.datasource.p6spy.enable-logging=false"),
+                        Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+    }
+
+    /** 팀 teams개에 회원 members개를 골고루 나눠서 저장 (username = bench00000 부터) **/
+    static void seed(ConfigurableApplicationContext context, int teams, int members) {
+        List<Team> savedTeams = context.getBean(TeamRepository.class)
+                .saveAll(IntStream.range(0, teams).mapToObj(i -> new Team("team" + i)).toList());
+        context.getBean(MemberRepository.class).saveAllBatched(
+                IntStream.range(0, members).mapToObj(i ->
+                        new Member(String.format("bench%05d", i), i % 100, savedTeams.get(i % teams))),
+                100);
+    }
+}
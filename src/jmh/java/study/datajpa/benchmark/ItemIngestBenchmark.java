@@ -0,0 +1,68 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Item 대량 적재 - 결과 단위가 item/s (호출 한 번에 BATCH 개 저장)
+ * - jpaSaveAll : ItemRepository.saveAll (persist + AuditingEntityListener + JDBC batch)
+ * - insertAll  : 영속성 컨텍스트 없이 multi-row insert + JDBC batch
+ * - insertIfAbsent : 영속성 컨텍스트 없이 multi-row MERGE (이미 있는 id 조회 포함)
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ItemIngestBenchmark {
+
+    static final int BATCH = 10_000;
+
+    ConfigurableApplicationContext context;
+    ItemRepository itemRepository;
+    final AtomicLong nextId = new AtomicLong(1);
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Item> jpaSaveAll() {
+        return itemRepository.saveAll(nextItems());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int insertAll() {
+        return itemRepository.insertAll(nextItems());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int insertIfAbsent() {
+        return itemRepository.insertIfAbsent(nextItems());
+    }
+
+    private List<Item> nextItems() {
+        long from = nextId.getAndAdd(BATCH);
+        return LongStream.range(from, from + BATCH).mapToObj(Item::new).toList();
+    }
+}
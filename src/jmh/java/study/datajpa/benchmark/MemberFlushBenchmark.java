@@ -0,0 +1,77 @@
+package study.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 10,000명을 영속성 컨텍스트에 올려두고 modified 명만 나이 + 1 후 flush - flush 만 측정 (조회는 Level.Invocation 준비 단계)
+ * - 바이트코드 향상(dirty tracking) 전 : flush 가 10,000명의 모든 필드를 스냅샷과 비교 -> 바꾼 수와 상관없이 비쌈
+ * - 향상 후 : 엔티티마다 바뀐 속성 목록만 확인 -> 비용이 바꾼 수를 따라감
+ * 향상 전 수치는 build.gradle 의 hibernate { } 블록을 빼고 다시 돌려서 비교
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberFlushBenchmark {
+
+    static final int MEMBERS = 10_000;
+
+    @Param({"0", "10"})
+    int modified;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 100, MEMBERS);
+        emf = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class LoadedMembers {
+        EntityManager em;
+        List<Member> members;
+
+        @Setup(Level.Invocation)
+        public void load(MemberFlushBenchmark benchmark) {
+            em = benchmark.emf.createEntityManager();
+            em.getTransaction().begin();
+            members = em.createQuery("select m from Member m", Member.class).getResultList();
+        }
+
+        @TearDown(Level.Invocation)
+        public void rollback() {
+            em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public int modifyAndFlush(LoadedMembers loaded) {
+        for (int i = 0; i < modified; i++) {
+            Member member = loaded.members.get(i * (MEMBERS / 10));
+            member.setAge(member.getAge() + 1);
+        }
+        loaded.em.flush();
+        return loaded.members.size();
+    }
+}
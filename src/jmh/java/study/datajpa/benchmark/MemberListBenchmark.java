@@ -0,0 +1,49 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * MemberController.list 전/후 비교 - gc 프로파일러의 gc.alloc.rate.norm (B/op) 이 요청당 할당량
+ * - entityThenMap : 엔티티 Page 조회 후 Page.map(MemberDto::new) (이전 방식, teamname 없음)
+ * - dtoProjection : 생성자 표현식으로 DTO 바로 조회 (현재 방식, teamname 포함)
+ */
+@State(Scope.Benchmark)
+public class MemberListBenchmark {
+
+    static final PageRequest PAGE = PageRequest.of(10, 100, Sort.by("username"));
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 100, 10_000);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<MemberDto> entityThenMap() {
+        return memberRepository.findAll(PAGE).map(MemberDto::new);
+    }
+
+    @Benchmark
+    public Page<MemberDto> dtoProjection() {
+        return memberRepository.findMemberDtoBy(PAGE);
+    }
+}
@@ -0,0 +1,112 @@
+package study.datajpa.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GET /members 동시 요청 부하 테스트 - 기본 모드(톰캣 플랫폼 스레드 200개) vs virtual 프로파일(가상 스레드, 커넥션 20개)
+ * - 모드마다 서버를 한 번씩 띄우고(메모리 H2, 회원 1,100명) 클라이언트는 가상 스레드로 concurrency 개를 동시에 요청
+ * - 클라이언트 하나가 rounds 번 연속 호출 -> 처리량(req/s), 지연시간 p50/p99/max, 실패 수
+ * - JMH 가 아니라 main 으로 실행 : ./gradlew loadTest -Pconcurrency=1000,5000,10000 -Prounds=3
+ * 주의) 클라이언트와 서버가 같은 JVM/CPU 를 나눠 씀 - 절대값보다 두 모드의 차이를 볼 것
+ *      동시 연결 1만 개는 양쪽 소켓을 합쳐 파일 디스크립터 2만 개 이상 필요 (ulimit -n)
+ */
+public final class MemberLoadTest {
+
+    private static final int PAGES = 50;
+
+    private MemberLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = Arrays.stream(System.getProperty("concurrency", "1000,5000,10000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int rounds = Integer.getInteger("rounds", 3);
+
+        System.out.printf("%-9s %11s %9s %9s %9s %9s %8s%n",
+                "mode", "concurrency", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "errors");
+        for (String mode : List.of("platform", "virtual")) {
+            try (ConfigurableApplicationContext context = mode.equals("virtual")
+                    ? BenchmarkContext.startServer("virtual")
+                    : BenchmarkContext.startServer()) {
+                BenchmarkContext.seed(context, 10, 1_000);
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+                try (HttpClient client = HttpClient.newBuilder()
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build()) {
+                    run(client, baseUrl, 200, 5); // 워밍업 (JIT, 커넥션)
+                    for (int concurrency : levels) {
+                        System.out.printf("%-9s %s%n", mode, run(client, baseUrl, concurrency, rounds));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Result run(HttpClient client, String baseUrl, int concurrency, int rounds) throws InterruptedException {
+        long[] latencies = new long[concurrency * rounds];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long begin;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/members?size=20&page=" + (i % PAGES + 1)))
+                        .timeout(Duration.ofSeconds(60))
+                        .build();
+                clients.submit(() -> {
+                    start.await(); // 다 만들어 두고 동시에 출발
+                    for (int r = 0; r < rounds; r++) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+            begin = System.nanoTime();
+            start.countDown();
+        } // close() 가 모든 클라이언트가 끝날 때까지 기다림
+        long elapsed = System.nanoTime() - begin;
+
+        Arrays.sort(latencies);
+        return new Result(concurrency, latencies.length * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1], errors.get());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Result(int concurrency, double throughput, long p50, long p99, long max, int errors) {
+
+        @Override
+        public String toString() {
+            return String.format("%11d %9.0f %9.1f %9.1f %9.1f %8d",
+                    concurrency, throughput, p50 / 1e6, p99 / 1e6, max / 1e6, errors);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.OptimisticRetryExecutor;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 같은 회원 나이를 8 스레드가 동시에 +1 - 비관적 락(findLockByUsername, select ... for update) vs 낙관적 락(@Version + 재시도)
+ * - hotRows : 스레드들이 나눠 쓰는 회원 수 (1 = 매번 충돌, 64 = 충돌 드묾)
+ * - sample 모드의 p99 / p99.9 가 꼬리 지연, optimistic 의 retries 는 연산 하나당 재시도 횟수 (AuxCounters)
+ * - 재시도 한도는 벤치마크에서만 크게 (기본 5번이면 hotRows=1 에서 포기하는 경우가 생김)
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+public class MemberLockBenchmark {
+
+    @Param({"1", "8", "64"})
+    int hotRows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    OptimisticRetryExecutor retryExecutor;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "datajpa.optimistic-retry.max-attempts=1000",
+                "logging.level.org.hibernate.orm.jdbc.batch=off"); // 충돌마다 찍히는 HHH100501 (StaleStateException) 로그
+        BenchmarkContext.seed(context, 10, 1_000);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        retryExecutor = context.getBean(OptimisticRetryExecutor.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retries {
+        public long retries;
+    }
+
+    String hotUsername() {
+        return String.format("bench%05d", ThreadLocalRandom.current().nextInt(hotRows));
+    }
+
+    @Benchmark
+    public int pessimistic() {
+        String username = hotUsername();
+        return transactionTemplate.execute(status -> {
+            Member member = memberRepository.findLockByUsername(username).get(0); // 다른 트랜잭션이 커밋할 때까지 대기
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+    }
+
+    @Benchmark
+    public int optimistic(Retries retries) {
+        String username = hotUsername();
+        int age = retryExecutor.execute(status -> {
+            retries.retries++;
+            Member member = memberJpaRepository.findByUsername(username).get(0); // 락 없이 읽고 커밋 때 version 비교
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+        retries.retries--; // 첫 시도는 재시도가 아님
+        return age;
+    }
+}
@@ -0,0 +1,76 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Map;
+
+/**
+ * 페이지 번호가 커질 때 offset Page / Slice / 키셋(Window) 비교
+ * - Page : offset + count 쿼리
+ * - Slice : offset 만 (count 없음)
+ * - Window : (username, id) 커서부터 바로 조회 -> page 값과 상관없이 일정해야 함
+ */
+@State(Scope.Benchmark)
+public class MemberPagingBenchmark {
+
+    static final int MEMBERS = 50_000;
+    static final int SIZE = 20;
+    static final Sort SORT = Sort.by("username", "id");
+
+    @Param({"1", "100", "2000"})
+    int page;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    ScrollPosition cursor;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 100, MEMBERS);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        // 키셋은 같은 위치의 커서를 미리 구해둠 (이전 페이지의 마지막 회원)
+        if (page == 1) {
+            cursor = ScrollPosition.keyset();
+        } else {
+            Member last = memberRepository.findAll(PageRequest.of(page - 2, SIZE, SORT)).getContent().get(SIZE - 1);
+            cursor = ScrollPosition.forward(Map.of("username", last.getUsername(), "id", last.getId()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Member> offsetPage() {
+        return memberRepository.findAll(PageRequest.of(page - 1, SIZE, SORT));
+    }
+
+    @Benchmark
+    public Slice<Member> offsetSlice() {
+        return memberRepository.findSliceBy(PageRequest.of(page - 1, SIZE, SORT));
+    }
+
+    @Benchmark
+    public Window<Member> keyset() {
+        return memberRepository.findByOrderByUsernameAscIdAsc(cursor, Limit.of(SIZE));
+    }
+}
@@ -0,0 +1,132 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.UsernameOnly;
+import study.datajpa.repository.UsernameOnlyClosed;
+import study.datajpa.repository.UsernameOnlyDto;
+
+import java.util.List;
+
+/**
+ * MemberRepository 주석으로만 남아있던 성능 팁들을 실제로 측정
+ * - 패치 조인 vs EntityGraph vs 지연 로딩 배치 페치(default_batch_fetch_size) vs 지연 로딩 N + 1 (batch size 1)
+ * - readOnly 힌트 vs 일반 조회 (트랜잭션 커밋 시 flush 까지 포함)
+ * - 프로젝션: 인터페이스 기반 Closed vs 클래스 기반(DTO) vs Open(@Value) vs 중첩
+ */
+@State(Scope.Benchmark)
+public class MemberQueryBenchmark {
+
+    static final String USERNAME = "bench00500";
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 100, 1_000);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int fetchJoin() {
+        return transactionTemplate.execute(status -> touchTeams(memberRepository.findMemberFetchJoin()));
+    }
+
+    @Benchmark
+    public int entityGraph() {
+        return transactionTemplate.execute(status -> touchTeams(memberRepository.findMemberEntityGraph()));
+    }
+
+    @Benchmark
+    public int lazyBatchFetch() { // 회원 1번 + 팀 프록시를 IN 으로 100개씩
+        return transactionTemplate.execute(status -> touchTeams(memberRepository.findMemberCustom()));
+    }
+
+    @Benchmark
+    public int lazyNPlusOne(NoBatchFetch noBatchFetch) { // 회원 1번 + 팀 수만큼 추가 쿼리
+        return noBatchFetch.transactionTemplate.execute(status -> touchTeams(noBatchFetch.memberRepository.findMemberCustom()));
+    }
+
+    @Benchmark
+    public Member readOnlyHint() {
+        return transactionTemplate.execute(status -> memberRepository.findReadOnlyByUsername(USERNAME));
+    }
+
+    @Benchmark
+    public List<Member> plainFindByUsername() {
+        return transactionTemplate.execute(status -> memberJpaRepository.findByUsername(USERNAME));
+    }
+
+    @Benchmark
+    public String closedProjection() { // username 컬럼만 select
+        return memberRepository.findProjectionsByUsername(USERNAME, UsernameOnlyClosed.class).get(0).getUsername();
+    }
+
+    @Benchmark
+    public String classProjection() {
+        return memberRepository.findProjectionsByUsername(USERNAME, UsernameOnlyDto.class).get(0).getUsername();
+    }
+
+    @Benchmark
+    public String openProjection() { // @Value SpEL 이라 엔티티 전체를 조회한 뒤 평가
+        return memberRepository.findProjectionsByUsername(USERNAME, UsernameOnly.class).get(0).getUsername();
+    }
+
+    @Benchmark
+    public String nestedProjection() {
+        return memberRepository.findProjectionsByUsername(USERNAME, NestedClosedProjections.class).get(0).getTeam().getName();
+    }
+
+    /** 전역 default_batch_fetch_size 를 끈 컨텍스트 - 지연 로딩 프록시를 하나씩 초기화 (진짜 N + 1) **/
+    @State(Scope.Benchmark)
+    public static class NoBatchFetch {
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+        TransactionTemplate transactionTemplate;
+
+        @Setup
+        public void setUp() {
+            context = BenchmarkContext.start("spring.jpa.properties.hibernate.default_batch_fetch_size=1");
+            BenchmarkContext.seed(context, 100, 1_000);
+            memberRepository = context.getBean(MemberRepository.class);
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    private static int touchTeams(List<Member> members) {
+        int length = 0;
+        for (Member member : members) {
+            if (member.getTeam() != null) { // MemberController.init()이 넣는 회원은 팀이 없음
+                length += member.getTeam().getName().length(); // 지연 로딩이면 여기서 프록시 초기화
+            }
+        }
+        return length;
+    }
+}
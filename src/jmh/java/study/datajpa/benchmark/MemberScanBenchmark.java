@@ -0,0 +1,77 @@
+package study.datajpa.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberPartitionScanner;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 전체 나이 + 1 (청크마다 select + update batch + 체크포인트 insert) - 동시 청크 수를 늘려가며
+ * - 커넥션 풀은 8개로 고정 -> parallelism 16 은 커넥션을 기다리기만 해서 8 과 비슷해야 함
+ * - 코어 수까지는 거의 선형, 그 뒤로는 DB(H2 메모리)가 병목
+ * - members 는 초당 처리한 회원 수 (AuxCounters)
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberScanBenchmark {
+
+    static final int MEMBERS = 5_000;
+    static final int CHUNK_SIZE = 250;
+
+    @Param({"1", "2", "4", "8", "16"})
+    int parallelism;
+
+    @Param({"FORK_JOIN", "VIRTUAL"})
+    MemberPartitionScanner.WorkerPool workerPool;
+
+    ConfigurableApplicationContext context;
+    MemberPartitionScanner scanner;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("spring.datasource.hikari.maximum-pool-size=8");
+        BenchmarkContext.seed(context, 10, MEMBERS);
+        // 설정값(datajpa.scan.parallelism)은 풀 크기로 잘리니 직접 만듦
+        scanner = new MemberPartitionScanner(
+                SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class)),
+                context.getBean(JdbcTemplate.class), context.getBean(PlatformTransactionManager.class),
+                context.getBean(MeterRegistry.class), context.getBean(Clock.class), workerPool, parallelism, CHUNK_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Members {
+        public long members;
+    }
+
+    @Benchmark
+    public long agePlusOne(Members counter) {
+        long scanned = scanner.scan("bench", chunk -> {
+            for (Member member : chunk) {
+                member.setAge(member.getAge() + 1);
+            }
+        }).getMembers();
+        counter.members += scanned;
+        return scanned;
+    }
+}
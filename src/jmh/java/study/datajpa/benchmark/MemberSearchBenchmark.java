@@ -0,0 +1,113 @@
+package study.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 동적 검색의 호출당 쿼리 만드는 비용
+ * - derivedFinder : 메소드 이름 쿼리 (findEntityGraphByUsername) - 시작할 때 한 번 만들어 둔 쿼리
+ * - cachedShape : MemberRepository.search - 조건 모양별 JPQL 에 파라미터만 바인딩
+ * - criteriaPerCall : 호출마다 Criteria 트리를 새로 만듦 (Hibernate 6.4 쿼리 해석 캐시 안 탐)
+ * username 만 (derivedFinder 와 같은 SQL) / 조건 4개 전부 두 가지로 비교
+ */
+@State(Scope.Benchmark)
+public class MemberSearchBenchmark {
+
+    static final MemberSearchCondition USERNAME = new MemberSearchCondition("bench00500", null, null, null);
+    // ageGoe 0 은 MemberSearchQuery 가 조건이 아니라고 빼버림 -> 1 이상이어야 4개 조건이 다 붙음 (bench00501 : 나이 1, team1)
+    static final MemberSearchCondition ALL_FILTERS = new MemberSearchCondition("bench00501", "team1", 1, 99);
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    EntityManager em;
+    TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 100, 1_000);
+        memberRepository = context.getBean(MemberRepository.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true); // search 와 같은 조건
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> derivedFinder() {
+        return readOnly.execute(status -> memberRepository.findEntityGraphByUsername(USERNAME.getUsername()));
+    }
+
+    @Benchmark
+    public List<Member> cachedShape() {
+        return memberRepository.search(USERNAME);
+    }
+
+    @Benchmark
+    public List<Member> criteriaPerCall() {
+        return readOnly.execute(status -> criteria(USERNAME));
+    }
+
+    @Benchmark
+    public List<Member> cachedShapeAllFilters() {
+        return memberRepository.search(ALL_FILTERS);
+    }
+
+    @Benchmark
+    public List<Member> criteriaPerCallAllFilters() {
+        return readOnly.execute(status -> criteria(ALL_FILTERS));
+    }
+
+    private List<Member> criteria(MemberSearchCondition condition) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> query = cb.createQuery(Member.class);
+        Root<Member> m = query.from(Member.class);
+        Fetch<Member, Team> fetch = m.fetch("team", JoinType.LEFT);
+        @SuppressWarnings("unchecked")
+        Join<Member, Team> t = (Join<Member, Team>) fetch;
+        List<Predicate> predicates = new ArrayList<>();
+        if (condition.getUsername() != null) {
+            predicates.add(cb.equal(m.get("username"), condition.getUsername()));
+        }
+        if (condition.getTeamName() != null) {
+            predicates.add(cb.equal(t.get("name"), condition.getTeamName()));
+        }
+        if (condition.getAgeGoe() != null) {
+            predicates.add(cb.ge(m.get("age"), condition.getAgeGoe()));
+        }
+        if (condition.getAgeLoe() != null) {
+            predicates.add(cb.le(m.get("age"), condition.getAgeLoe()));
+        }
+        query.select(m).where(predicates.toArray(Predicate[]::new)).orderBy(cb.asc(m.get("id")));
+        return em.createQuery(query).getResultList();
+    }
+}
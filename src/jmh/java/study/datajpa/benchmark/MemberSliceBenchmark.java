@@ -0,0 +1,61 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSliceDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.ApproximateCountCache;
+
+/**
+ * /members 의 Page 모드 vs Slice 모드 (mode=slice) - 회원 수가 많아질수록 count 쿼리 몫이 커짐
+ * - page : 목록 + select count(m) (매번 전체 스캔)
+ * - sliceWithEstimate : 목록(size + 1) + ApproximateCountCache 의 전체 회원 수 (컨트롤러와 같은 키, 캐시 적중이면 쿼리 없음)
+ * 앞쪽 페이지라 목록 쿼리는 회원 수와 상관없이 비슷해야 함 - 차이가 count 비용
+ */
+@State(Scope.Benchmark)
+public class MemberSliceBenchmark {
+
+    static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by("username"));
+
+    @Param({"10000", "200000"})
+    int members;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    ApproximateCountCache countCache;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 100, members);
+        memberRepository = context.getBean(MemberRepository.class);
+        countCache = context.getBean(ApproximateCountCache.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<MemberDto> page() {
+        return memberRepository.findMemberDtoBy(PAGE);
+    }
+
+    @Benchmark
+    public MemberSliceDto sliceWithEstimate() {
+        Slice<MemberDto> slice = memberRepository.findMemberDtoSliceBy(PAGE);
+        return new MemberSliceDto(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                countCache.count(MemberRepository.MEMBER_COUNT, null, memberRepository::count));
+    }
+}
@@ -1,15 +1,22 @@
 package study.datajpa;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.support.AuditingFlushListener;
+import study.datajpa.support.TransactionScopedAuditorAware;
+import study.datajpa.support.FlushScopedDateTimeProvider;
 
-import java.util.Optional;
+import java.time.Clock;
 import java.util.UUID;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -20,8 +27,10 @@ public class DataJpaApplication {
     /** BaseEntity 등록되거나 수정될 때마다 아래 auditorProvider를 호출해서 결과물을 꺼내감! **/
     @Bean
     public AuditorAware<String> auditorProvider() {
-        return () -> Optional.of(UUID.randomUUID().toString());
+        // 실무에서는 세션/시큐리티 컨텍스트에서 꺼낸 사용자 id - 요청(트랜잭션)당 한 번만 구하고 나머지 쓰기는 재사용
+        return new TransactionScopedAuditorAware(() -> UUID.randomUUID().toString());
 
+//        return () -> Optional.of(UUID.randomUUID().toString()); // 쓰기마다 UUID(SecureRandom) + String 2개 생성
         // 람다식 원래 코드
 //        return new AuditorAware<String>() {
 //            @Override
@@ -30,4 +39,27 @@ public class DataJpaApplication {
 //            }
 //        }
     }
+
+    /** @CreatedDate, @LastModifiedDate 시각 - flush 당 한 번만 읽음 **/
+    @Bean
+    public FlushScopedDateTimeProvider auditingDateTimeProvider(Clock clock) {
+        return new FlushScopedDateTimeProvider(clock);
+    }
+
+    @Bean
+    public AuditingFlushListener auditingFlushListener(EntityManagerFactory entityManagerFactory,
+                                                       FlushScopedDateTimeProvider auditingDateTimeProvider) {
+        AuditingFlushListener listener = new AuditingFlushListener(auditingDateTimeProvider);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.FLUSH, listener);
+        registry.appendListeners(EventType.AUTO_FLUSH, listener);
+        return listener;
+    }
+
+    @Bean // 시각을 바꿔 끼울 수 있게 (테스트에서 Clock.fixed)
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
@@ -0,0 +1,23 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.support.ApproximateCountCache;
+
+import java.time.Clock;
+
+/** Page/Slice 응답의 전체 개수를 count 쿼리 대신 캐시에서 (MemberController.list 기본 + mode=slice, count=exact 면 매번 셈) **/
+@Configuration
+@EnableConfigurationProperties(CountCacheProperties.class)
+public class CountCacheConfig {
+
+    @Bean
+    public ApproximateCountCache approximateCountCache(PlatformTransactionManager transactionManager,
+                                                       CountCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ApproximateCountCache(transactionManager, properties.getRefreshAfter(), properties.getMaxStaleness(),
+                properties.getMaxEntries(), properties.getRefreshThreads(), meterRegistry, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/** application.yml 의 datajpa.count-cache.* **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.count-cache")
+public class CountCacheProperties {
+
+    /** 이보다 오래된 값은 응답은 그대로 하고 백그라운드에서 다시 셈 **/
+    private Duration refreshAfter = Duration.ofSeconds(10);
+
+    /** 이보다 오래된 값은 쓰지 않고 요청 스레드에서 바로 셈 - 응답 전체 개수가 틀어질 수 있는 최대 시간 **/
+    private Duration maxStaleness = Duration.ofMinutes(1);
+
+    /** (쿼리 모양, 검색 조건) 조합 최대 개수 **/
+    private int maxEntries = 1000;
+
+    private int refreshThreads = 1;
+}
@@ -0,0 +1,74 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.function.SingletonSupplier;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberAggregateChecker;
+import study.datajpa.repository.MemberAggregateListener;
+import study.datajpa.repository.MemberAggregateReconcileInterceptor;
+import study.datajpa.repository.MemberAggregateStore;
+import study.datajpa.support.ApproximateCountCache;
+
+/** 팀별/나이별 회원 수를 메모리에 유지 (MemberAggregateStore) - count 쿼리 대신 **/
+@Configuration
+@EnableConfigurationProperties(MemberAggregateProperties.class)
+public class MemberAggregateConfig {
+
+    @Bean
+    public MemberAggregateStore memberAggregateStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        return new MemberAggregateStore(jdbcTemplate, meterRegistry);
+    }
+
+    @Bean
+    public MemberAggregateListener memberAggregateListener(EntityManagerFactory entityManagerFactory,
+                                                           MemberAggregateStore memberAggregateStore) {
+        MemberAggregateListener listener = new MemberAggregateListener(memberAggregateStore);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        return listener;
+    }
+
+    /** 회원 레포지토리 프록시의 벌크 메소드(@Modifying, *InBatch) 뒤에 다시 셈 + 캐시된 전체 회원 수 지움 - 이벤트가 안 나옴 **/
+    @Bean
+    public static BeanPostProcessor memberAggregateReconcilePostProcessor(ObjectProvider<MemberAggregateStore> memberAggregateStore,
+                                                                          ObjectProvider<ApproximateCountCache> countCache) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> {
+                                if (information.getDomainType() == Member.class) {
+                                    proxyFactory.addAdvice(new MemberAggregateReconcileInterceptor(
+                                            SingletonSupplier.of(memberAggregateStore::getObject),
+                                            SingletonSupplier.of(countCache::getObject)));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MemberAggregateChecker memberAggregateChecker(MemberAggregateStore memberAggregateStore,
+                                                         MemberAggregateListener memberAggregateListener, // 리스너 등록 후 시작
+                                                         MemberAggregateProperties properties) {
+        return new MemberAggregateChecker(memberAggregateStore, properties.getCheckInterval());
+    }
+}
@@ -0,0 +1,16 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/** application.yml 의 datajpa.aggregates.* **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.aggregates")
+public class MemberAggregateProperties {
+
+    /** 메모리 집계를 DB count 와 비교하는 주기 **/
+    private Duration checkInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,42 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.repository.MemberPartitionScanner;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/** 회원 전체 배치 작업 - id 범위를 청크로 나눠서 병렬 처리 (MemberPartitionScanner) **/
+@Configuration
+@EnableConfigurationProperties(MemberScanProperties.class)
+public class MemberScanConfig {
+
+    @Bean
+    public MemberPartitionScanner memberPartitionScanner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                                                         PlatformTransactionManager transactionManager,
+                                                         MeterRegistry meterRegistry, Clock clock, DataSource dataSource,
+                                                         MemberScanProperties properties) {
+        // 트랜잭션마다(워커 스레드마다) 그 트랜잭션의 EntityManager 로 연결되는 프록시
+        EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        return new MemberPartitionScanner(em, jdbcTemplate, transactionManager, meterRegistry, clock, properties.getWorkerPool(),
+                parallelism(properties.getParallelism(), dataSource), properties.getChunkSize());
+    }
+
+    // 청크마다 커넥션을 하나씩 잡으니 풀 크기보다 많으면 나머지는 커넥션을 기다리기만 함
+    static int parallelism(int configured, DataSource dataSource) {
+        int parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        HikariConfigMXBean hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        return hikari == null ? parallelism : Math.min(parallelism, hikari.getMaximumPoolSize());
+    }
+}
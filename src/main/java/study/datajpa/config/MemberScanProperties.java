@@ -0,0 +1,20 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import study.datajpa.repository.MemberPartitionScanner;
+
+/** application.yml 의 datajpa.scan.* **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.scan")
+public class MemberScanProperties {
+
+    /** 청크 하나의 회원 id 범위 크기 - id 가 비어있을 수 있어서 실제 회원 수는 이보다 적을 수 있음 **/
+    private int chunkSize = 1000;
+
+    private MemberPartitionScanner.WorkerPool workerPool = MemberPartitionScanner.WorkerPool.FORK_JOIN;
+
+    /** 동시에 처리하는 청크 수 - 0 이면 CPU 코어 수, 어느 쪽이든 커넥션 풀 크기를 넘지 않음 **/
+    private int parallelism = 0;
+}
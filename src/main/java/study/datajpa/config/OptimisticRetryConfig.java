@@ -0,0 +1,22 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.support.OptimisticRetryExecutor;
+
+/** @Version 충돌(ObjectOptimisticLockingFailureException) 이 나면 트랜잭션을 처음부터 다시 실행 **/
+@Configuration
+@EnableConfigurationProperties(OptimisticRetryProperties.class)
+public class OptimisticRetryConfig {
+
+    @Bean
+    public OptimisticRetryExecutor optimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                                           OptimisticRetryProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        return new OptimisticRetryExecutor(transactionManager, properties.getMaxAttempts(),
+                properties.getInitialBackoff(), properties.getMaxBackoff(), meterRegistry);
+    }
+}
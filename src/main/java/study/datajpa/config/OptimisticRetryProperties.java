@@ -0,0 +1,20 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/** application.yml 의 datajpa.optimistic-retry.* **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.optimistic-retry")
+public class OptimisticRetryProperties {
+
+    /** 첫 시도 포함 - 다 실패하면 마지막 충돌 예외를 그대로 던짐 **/
+    private int maxAttempts = 5;
+
+    /** n 번째 재시도 전 대기 상한 = min(initialBackoff * 2^(n-1), maxBackoff), 실제 대기는 0 ~ 상한 사이 랜덤 **/
+    private Duration initialBackoff = Duration.ofMillis(5);
+    private Duration maxBackoff = Duration.ofMillis(100);
+}
@@ -0,0 +1,49 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryInterpretationCache;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate 쿼리 플랜 캐시 (hibernate.query.plan_cache_max_size) 메트릭
+ * - datajpa.hibernate.query.plan.cache.hit.ratio : JPQL 해석 결과 캐시 적중률 (hibernate.generate_statistics 필요)
+ * - datajpa.hibernate.query.plan.cache.size{cache=hql|sql} : 캐시된 JPQL 해석 / SQL 플랜 개수
+ * 적중/미스 횟수 자체는 hibernate-micrometer 가 hibernate.cache.query.plan{result=hit|miss} 로 올림
+ */
+@Configuration
+@EnableConfigurationProperties(QueryPlanProperties.class)
+public class QueryPlanCacheConfig {
+
+    @Bean
+    public MeterBinder queryPlanCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        return registry -> {
+            Statistics statistics = sessionFactory.getStatistics();
+            Gauge.builder("datajpa.hibernate.query.plan.cache.hit.ratio", statistics, QueryPlanCacheConfig::hitRatio)
+                    .description("query plan cache hits / lookups")
+                    .register(registry);
+
+            QueryInterpretationCache cache = sessionFactory.getQueryEngine().getInterpretationCache();
+            Gauge.builder("datajpa.hibernate.query.plan.cache.size", cache,
+                            QueryInterpretationCache::getNumberOfCachedHqlInterpretations)
+                    .tag("cache", "hql")
+                    .register(registry);
+            Gauge.builder("datajpa.hibernate.query.plan.cache.size", cache,
+                            QueryInterpretationCache::getNumberOfCachedQueryPlans)
+                    .tag("cache", "sql")
+                    .register(registry);
+        };
+    }
+
+    static double hitRatio(Statistics statistics) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long lookups = hits + statistics.getQueryPlanCacheMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
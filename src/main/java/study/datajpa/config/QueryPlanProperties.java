@@ -0,0 +1,17 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** application.yml 의 datajpa.query.* **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.query")
+public class QueryPlanProperties {
+
+    /**
+     * IN 절 하나에 넣는 최대 값 개수 - 넘으면 여러 쿼리로 나눠서 실행 (Oracle 은 1000 개 제한)
+     * in_clause_parameter_padding 이 2의 거듭제곱으로 채우니 2의 거듭제곱으로 맞춰야 자리가 남지 않음
+     */
+    private int inClauseChunkSize = 512;
+}
@@ -0,0 +1,89 @@
+package study.datajpa.config;
+
+import com.p6spy.engine.spy.P6DataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.datajpa.support.ReplicaMonitor;
+import study.datajpa.support.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * datajpa.routing.enabled=true 일 때만 - 스프링 부트 기본 DataSource 대신 primary + 복제본 라우팅 DataSource 등록
+ * LazyConnectionDataSourceProxy -> P6DataSource -> ReplicaRoutingDataSource -> primary(spring.datasource.*) / replica0, replica1 ...
+ * - p6spy 데코레이터가 바깥(LazyConnectionDataSourceProxy)을 감싸면 getConnection 할 때 getMetaData() 를 불러서
+ *   트랜잭션 시작 시점에 커넥션이 바로 잡힘 (readOnly 가 정해지기 전) -> 빈은 데코레이터에서 제외하고 안쪽에서 직접 감쌈
+ *   (application.yml 의 decorator.datasource.exclude-beans: routingDataSource)
+ * - open-in-view 면 요청 하나에 EntityManager 하나 -> 기본값(DELAYED_ACQUISITION_AND_HOLD)은 처음 잡은 커넥션을 요청 끝까지 들고 있어서
+ *   읽기 전용 트랜잭션이 잡은 복제본 커넥션으로 다음 쓰기 트랜잭션이 나감 -> 트랜잭션이 끝날 때마다 커넥션을 돌려주고 다음 트랜잭션에서 다시 라우팅
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datajpa.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @Primary
+    public DataSource routingDataSource(DataSourceProperties dataSourceProperties, ReadReplicaProperties properties,
+                                 Environment environment, MeterRegistry meterRegistry) {
+        // 부트가 만드는 것과 같은 primary 풀 (spring.datasource.hikari.* 적용)
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> replicaProperties = properties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            String name = "replica" + i;
+            HikariDataSource replica = replica(name, replicaProperties.get(i), meterRegistry);
+            if (properties.isMigrateReplicas()) {
+                Flyway.configure().dataSource(replica).load().migrate();
+            }
+            replicas.put(name, replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primary, replicas, properties.getLagQuery(), properties.getMaxLag(), meterRegistry);
+        return new LazyConnectionDataSourceProxy(new P6DataSource(routing)); // SQL 로그는 실제 커넥션을 얻을 때부터
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private static HikariDataSource replica(String name, ReadReplicaProperties.Replica properties, MeterRegistry meterRegistry) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName(name);
+        replica.setJdbcUrl(properties.getUrl());
+        replica.setUsername(properties.getUsername());
+        replica.setPassword(properties.getPassword());
+        replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        replica.setMetricRegistry(meterRegistry); // hikaricp.connections.*{pool=replica0}
+        return replica;
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor(DataSource dataSource, ReadReplicaProperties properties) throws SQLException {
+        return new ReplicaMonitor(dataSource.unwrap(ReplicaRoutingDataSource.class), properties.getLagCheckInterval());
+    }
+}
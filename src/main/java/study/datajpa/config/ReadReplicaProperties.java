@@ -0,0 +1,37 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/** application.yml 의 datajpa.routing.* - 읽기 전용 트랜잭션을 보낼 복제본(replica) 목록 **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.routing")
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** 복제 지연(ms) 한 값을 돌려주는 SQL - 복제본에서 실행 (없으면 지연 0 으로 봄) **/
+    private String lagQuery;
+
+    /** 지연이 이보다 크면 그 복제본은 건너뜀 (모두 넘으면 primary 로) **/
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /** 로컬에서 메모리 H2 로 복제본을 흉내낼 때 - 복제본에도 Flyway 마이그레이션 실행 **/
+    private boolean migrateReplicas;
+
+    @Getter @Setter
+    public static class Replica {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+        private int maximumPoolSize = 10;
+    }
+}
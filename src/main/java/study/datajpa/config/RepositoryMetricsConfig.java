@@ -0,0 +1,79 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.function.SingletonSupplier;
+import study.datajpa.support.EntityLoadCounter;
+import study.datajpa.support.RepositoryMetricsEndpoint;
+import study.datajpa.support.RepositoryMetricsInterceptor;
+
+/**
+ * 모든 레포지토리 메소드 호출에 RepositoryMetricsInterceptor 를 씌움
+ * - Spring Data 레포지토리 (MemberRepository, TeamRepository, ItemRepository) : 레포지토리 프록시에 advice 추가
+ * - 직접 만든 @Repository 클래스 (MemberJpaRepository, TeamJpaRepository) : advisor (AOP 자동 프록시)
+ * Hibernate 통계(hibernate.*)와 HikariCP 풀(hikaricp.connections.*) 메트릭은 스프링 부트가 자동으로 등록
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new RepositoryMetricsInterceptor(
+                                    information.getRepositoryInterface().getSimpleName(),
+                                    observationRegistry(observationRegistry), SingletonSupplier.of(meterRegistry::getObject)))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static Advisor jpaRepositoryMetricsAdvisor(ObjectProvider<ObservationRegistry> observationRegistry,
+                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        // Spring Data 레포지토리 프록시(SimpleJpaRepository 도 @Repository)는 빼고 우리 패키지의 @Repository 클래스만
+        ClassFilter handWritten = clazz -> clazz.getName().startsWith("study.datajpa.")
+                && AnnotatedElementUtils.hasAnnotation(clazz, Repository.class);
+        return new DefaultPointcutAdvisor(new ComposablePointcut(handWritten), new RepositoryMetricsInterceptor(
+                null, observationRegistry(observationRegistry), SingletonSupplier.of(meterRegistry::getObject)));
+    }
+
+    @Bean
+    public EntityLoadCounter entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+        EntityLoadCounter counter = new EntityLoadCounter();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, counter);
+        return counter;
+    }
+
+    @Bean
+    public RepositoryMetricsEndpoint repositoryMetricsEndpoint(MeterRegistry meterRegistry) {
+        return new RepositoryMetricsEndpoint(meterRegistry);
+    }
+
+    private static SingletonSupplier<ObservationRegistry> observationRegistry(ObjectProvider<ObservationRegistry> provider) {
+        return SingletonSupplier.of(() -> provider.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** 스키마는 Flyway 마이그레이션(db/migration)으로 관리 **/
+@Configuration
+public class SchemaConfig {
+
+    // 로컬 개발용 - 예전 ddl-auto: create 처럼 시작할 때마다 깨끗한 스키마에서 시작 (local 프로파일에서만 켜짐)
+    // spring.flyway.clean-disabled 도 false 여야 함 - 기본(true)이면 clean() 이 예외를 던짐
+    @Bean
+    @ConditionalOnProperty(prefix = "datajpa.schema", name = "reset-on-startup", havingValue = "true")
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
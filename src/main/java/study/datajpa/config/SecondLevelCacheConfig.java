@@ -0,0 +1,77 @@
+package study.datajpa.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 2차 캐시 (datajpa.cache.enabled=true 일 때만)
+ * - Team, Member 엔티티 region + Member.findByUsername 쿼리 캐시
+ * - JPQL 벌크 연산(bulkAgePlus)은 Hibernate가 해당 엔티티 region과 쿼리 캐시 timestamp를 알아서 무효화함
+ * - region 별 hit/miss 는 /actuator/metrics/hibernate.second.level.cache.requests 에서 확인
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@ConditionalOnProperty(prefix = "datajpa.cache", name = "enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        // 기본 URI 를 쓰면 클래스로더 단위 싱글톤이라 컨텍스트가 여러 개 뜨는 테스트에서 region 이름이 충돌함 -> 컨텍스트마다 따로 생성
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:datajpa:second-level-cache:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+
+        Set<String> regions = new LinkedHashSet<>(properties.getRegions().keySet());
+        regions.add("team");
+        regions.add("member");
+        regions.add(QUERY_RESULTS_REGION);
+        for (String region : regions) {
+            SecondLevelCacheProperties.Region config = properties.regionOrDefaults(region);
+            cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                    ResourcePoolsBuilder.heap(config.getMaxEntries()))
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(config.getTimeToLive()))));
+        }
+
+        // timestamp region은 쿼리 캐시보다 먼저 만료되면 오래된 쿼리 결과가 나갈 수 있어서 만료시키지 않음
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(10_000))
+                        .withExpiry(ExpiryPolicyBuilder.noExpiration())));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true); // region 별 hit/miss 집계
+        };
+    }
+}
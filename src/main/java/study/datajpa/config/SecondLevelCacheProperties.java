@@ -0,0 +1,29 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** application.yml 의 datajpa.cache.* - region 별 최대 엔트리 수와 TTL **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.cache")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled;
+    private Region defaults = new Region();
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public Region regionOrDefaults(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    @Getter @Setter
+    public static class Region {
+        private long maxEntries = 1000;
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
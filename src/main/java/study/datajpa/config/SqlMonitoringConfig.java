@@ -0,0 +1,35 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.datajpa.support.SqlStatementBudgetInterceptor;
+import study.datajpa.support.SqlStatementInspector;
+
+/** 요청별 SQL 개수 집계 + N + 1 감지 **/
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(SqlMonitoringProperties.class)
+public class SqlMonitoringConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlMonitoringProperties properties;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        return hibernateProperties ->
+                hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementBudgetInterceptor(meterRegistry, properties))
+                .excludePathPatterns("/actuator/**");
+    }
+}
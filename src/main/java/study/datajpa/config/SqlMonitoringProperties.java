@@ -0,0 +1,17 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** application.yml 의 datajpa.sql.* **/
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.sql")
+public class SqlMonitoringProperties {
+
+    /** 한 요청에서 같은 SELECT 가 이 횟수 이상 반복되면 N + 1 경고 **/
+    private int repeatedSelectThreshold = 3;
+
+    /** 한 요청에서 이 개수를 넘는 SQL 이 실행되면 경고 **/
+    private int statementBudget = 20;
+}
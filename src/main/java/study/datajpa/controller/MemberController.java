@@ -1,22 +1,55 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberScrollDto;
+import study.datajpa.dto.MemberSliceDto;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.ApproximateCountCache;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SCROLL_SIZE = 2000; // pageable max-page-size 와 동일하게
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count-Mode"; // 응답의 totalElements 가 exact / approximate
+
     private final MemberRepository memberRepository;
+    private final ApproximateCountCache countCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -31,10 +64,23 @@ public class MemberController {
     }
 
     /** 페이징과 정렬 **/
+    // 전체 개수는 기본으로 ApproximateCountCache 값 (datajpa.count-cache.max-staleness 이내) -> 목록 쿼리 하나
+    // 정확한 개수가 필요하면 /members?count=exact (count 쿼리 같이 나감), 전체 페이지 수가 필요 없으면 mode=slice
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size = 5, sort = "username") Pageable pageable) { // Page는 결과 정보, Pageable은 파라미터 정보
-        return memberRepository.findAll(pageable)
-                .map(MemberDto::new);
+    public ResponseEntity<Page<MemberDto>> list(@PageableDefault(size = 5, sort = "username") Pageable pageable, // Page는 결과 정보, Pageable은 파라미터 정보
+                                                @RequestParam(value = "count", defaultValue = "approximate") String count) {
+        if ("exact".equalsIgnoreCase(count)) {
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT_HEADER, "exact")
+                    .body(memberRepository.findMemberDtoBy(pageable)); // 엔티티 조회 없이 DTO로 바로 (teamname 포함)
+        }
+        Slice<MemberDto> slice = memberRepository.findMemberDtoSliceBy(pageable); // size + 1 개 조회
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, "approximate")
+                .body(new PageImpl<>(slice.getContent(), pageable, boundedTotal(slice, pageable, approximateTotal())));
+
+//        return memberRepository.findAll(pageable)
+//                .map(MemberDto::new);
 //                .map(member -> new MemberDto(member));
 
 //        Page<Member> page = memberRepository.findAll(pageable); // ⭐ 20개씩 페이징 ⭐
@@ -42,12 +88,104 @@ public class MemberController {
 //        return map; // ctrl+alt+n 인라인
     }
 
+    // 조건 없는 전체 회원 수 - Page 와 Slice 가 같은 캐시 값을 씀 (벌크 연산이 끝나면 지워짐)
+    private long approximateTotal() {
+        return countCache.count(MemberRepository.MEMBER_COUNT, null, memberRepository::count);
+    }
+
+    // 캐시 값이 이번 조회 결과와 맞지 않으면 조회 결과 쪽으로 맞춤 (마지막 페이지면 정확한 개수를 앎)
+    private static long boundedTotal(Slice<MemberDto> slice, Pageable pageable, long cached) {
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (slice.hasNext()) {
+            return Math.max(cached, seen + 1);
+        }
+        return slice.hasContent() ? seen : Math.min(cached, pageable.getOffset());
+    }
+
+    /** 무한 스크롤 - /members?mode=slice&page=3 (mode 가 없으면 위의 Page) **/
+    // 목록 쿼리 하나 (size + 1 개 조회로 hasNext), 전체 수는 Page 와 같은 ApproximateCountCache 값
+    @GetMapping(value = "/members", params = "mode=slice")
+    public MemberSliceDto slice(@PageableDefault(size = 5, sort = "username") Pageable pageable) {
+        Slice<MemberDto> slice = memberRepository.findMemberDtoSliceBy(pageable);
+        return new MemberSliceDto(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                approximateTotal());
+    }
+
+    /** 키셋 페이징 - count 쿼리 없이 이전 응답의 (nextUsername, nextId) 다음부터 조회 **/
+    // 첫 페이지는 커서 없이 호출 -> /members/scroll?size=20
+    // 다음 페이지는 커서를 넘김 -> /members/scroll?username=user19&id=20&size=20
+    @GetMapping("/members/scroll")
+    public MemberScrollDto scroll(@RequestParam(value = "username", required = false) String username,
+                                  @RequestParam(value = "id", required = false) Long id,
+                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        ScrollPosition position = (username == null || id == null)
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("username", username, "id", id));
+
+        Window<Member> window = memberRepository.findByOrderByUsernameAscIdAsc(
+                position, Limit.of(Math.max(1, Math.min(size, MAX_SCROLL_SIZE))));
+
+        List<MemberDto> content = window.map(MemberDto::new).getContent();
+        if (content.isEmpty()) {
+            return new MemberScrollDto(content, false, null, null);
+        }
+        MemberDto last = content.get(content.size() - 1);
+        return new MemberScrollDto(content, window.hasNext(), last.getUsername(), last.getId());
+    }
+
+    /** 전체 회원 내보내기 - 커서에서 읽는 대로 바로 응답에 써서 회원 수가 많아도 메모리가 일정함 **/
+    // /members/export?format=ndjson (기본) 또는 /members/export?format=csv
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // StreamingResponseBody는 요청 스레드가 아닌 별도 스레드에서 실행되기 때문에 트랜잭션도 여기서 직접 열어줌
+        StreamingResponseBody body = out -> readOnly.executeWithoutResult(status -> {
+            try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                if (csv) {
+                    writer.write("id,username,teamname\n");
+                }
+                Iterator<MemberDto> iterator = members.iterator();
+                while (iterator.hasNext()) {
+                    MemberDto dto = iterator.next();
+                    writer.write(csv ? toCsvLine(dto) : objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static String toCsvLine(MemberDto dto) {
+        return dto.getId() + "," + csvValue(dto.getUsername()) + "," + csvValue(dto.getTeamname());
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
     @PostConstruct // 스프링 애플리케이션 올라올 때 한 번 실행되는거임!
     public void init() {
 //        memberRepository.save(new Member("userA"));
-        for(int i = 0; i<100; i++) {
-            memberRepository.save(new Member("user" + i, i));
-        }
+//        for(int i = 0; i<100; i++) {
+//            memberRepository.save(new Member("user" + i, i));
+//        }
+        memberRepository.saveAllBatched(IntStream.range(0, 100).mapToObj(i -> new Member("user" + i, i)), 100);
     }
 }
 
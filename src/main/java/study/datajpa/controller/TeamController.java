@@ -0,0 +1,74 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.repository.MemberAggregateStore;
+import study.datajpa.repository.TeamMemberProjection;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private static final int MAX_TEAMS_PER_PAGE = 100;
+    private static final int MAX_MEMBERS_PER_TEAM = 100;
+
+    private final TeamRepository teamRepository;
+    private final MemberAggregateStore memberAggregateStore;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 팀 목록 + 팀마다 회원 최대 members 명 - 팀 크기와 상관없이 SQL 은 페이지당 3개 (팀 페이지, count, 회원)
+     * /teams?page=1&size=20&members=20
+     */
+    @GetMapping("/teams")
+    public Page<TeamDto> list(@PageableDefault(size = 20, sort = "id") Pageable pageable,
+                              @RequestParam(value = "members", defaultValue = "20") int members) {
+        Pageable bounded = pageable.getPageSize() > MAX_TEAMS_PER_PAGE
+                ? PageRequest.of(pageable.getPageNumber(), MAX_TEAMS_PER_PAGE, pageable.getSort())
+                : pageable;
+        int limit = Math.max(1, Math.min(members, MAX_MEMBERS_PER_TEAM));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true); // 팀 페이지와 회원을 같은 스냅샷(커넥션)에서
+        return readOnly.execute(status -> {
+            Page<TeamDto> page = teamRepository.findTeamDtoBy(bounded);
+            if (page.isEmpty()) {
+                return page;
+            }
+            Map<Long, TeamDto> teams = page.getContent().stream()
+                    .collect(Collectors.toMap(TeamDto::getId, Function.identity()));
+            for (TeamMemberProjection row : teamRepository.findTopMembersByTeamIds(teams.keySet(), limit)) {
+                TeamDto team = teams.get(row.getTeamId());
+                team.setMemberCount(row.getMemberCount());
+                team.getMembers().add(new MemberDto(row.getId(), row.getUsername(), team.getName()));
+            }
+            return page;
+        });
+    }
+
+    /** 팀별/나이별 회원 수 - group by 쿼리 없이 메모리 집계에서 바로 (커밋된 값 기준) **/
+    @GetMapping("/teams/stats")
+    public TeamStatsDto stats() {
+        return new TeamStatsDto(
+                memberAggregateStore.total(),
+                memberAggregateStore.countByTeam(null),
+                memberAggregateStore.teamCounts(),
+                memberAggregateStore.ageHistogram());
+    }
+}
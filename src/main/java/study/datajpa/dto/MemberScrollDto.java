@@ -0,0 +1,21 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/** 키셋 페이징 응답 - 다음 페이지를 요청할 때 nextUsername, nextId를 그대로 넘겨주면 됨 **/
+@Data
+public class MemberScrollDto {
+    private List<MemberDto> content;
+    private boolean hasNext;
+    private String nextUsername;
+    private Long nextId;
+
+    public MemberScrollDto(List<MemberDto> content, boolean hasNext, String nextUsername, Long nextId) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextUsername = nextUsername;
+        this.nextId = nextId;
+    }
+}
@@ -0,0 +1,16 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** 회원 검색 조건 - null(빈 문자열)인 조건은 빼고 검색 (MemberRepositoryCustom.search) **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberSearchCondition {
+    private String username;
+    private String teamName;
+    private Integer ageGoe; // 나이 >= ageGoe
+    private Integer ageLoe; // 나이 <= ageLoe
+}
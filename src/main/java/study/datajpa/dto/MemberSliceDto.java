@@ -0,0 +1,26 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 무한 스크롤 응답 (/members?mode=slice) - count 쿼리 없이 hasNext 로 다음 페이지 여부만
+ * estimatedTotal 은 Page 응답의 totalElements 와 같은 ApproximateCountCache 값이라 datajpa.count-cache.max-staleness 만큼 늦을 수 있음
+ */
+@Data
+public class MemberSliceDto {
+    private List<MemberDto> content;
+    private int number; // Page 응답처럼 0부터
+    private int size;
+    private boolean hasNext;
+    private long estimatedTotal;
+
+    public MemberSliceDto(List<MemberDto> content, int number, int size, boolean hasNext, long estimatedTotal) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.estimatedTotal = estimatedTotal;
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** /teams 응답 - members 는 팀마다 앞에서부터 최대 N 명, memberCount 는 전체 회원 수 **/
+@Data
+public class TeamDto {
+    private Long id;
+    private String name;
+    private long memberCount;
+    private List<MemberDto> members = new ArrayList<>();
+
+    public TeamDto(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+}
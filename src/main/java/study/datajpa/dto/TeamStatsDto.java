@@ -0,0 +1,22 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/** /teams/stats 응답 - 팀별 회원 수(teamId -> 회원 수), 나이별 회원 수(age -> 회원 수) **/
+@Data
+public class TeamStatsDto {
+    private long totalMembers;
+    private long membersWithoutTeam;
+    private Map<Long, Long> membersByTeam;
+    private Map<Integer, Long> membersByAge;
+
+    public TeamStatsDto(long totalMembers, long membersWithoutTeam,
+                        Map<Long, Long> membersByTeam, Map<Integer, Long> membersByAge) {
+        this.totalMembers = totalMembers;
+        this.membersWithoutTeam = membersWithoutTeam;
+        this.membersByTeam = membersByTeam;
+        this.membersByAge = membersByAge;
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+
+import java.time.LocalDateTime;
+
+/**
+ * BaseTimeEntity / BaseEntity 전용 감사 필드 리스너 (AuditingEntityListener 대신)
+ * - AuditingEntityListener 는 엔티티마다 AuditingHandler 가 BeanWrapper, PropertyAccessor 를 만들고 리플렉션으로 값을 넣음
+ * - 여기서는 필드에 바로 대입 + 등록자는 요청(트랜잭션)당, 시각은 flush 당 한 번 구한 값을 재사용 -> 쓰기당 할당 없음
+ * - @PreUpdate 는 flush 시점에 호출되므로 한 번의 flush 로 나가는 엔티티는 모두 같은 시각
+ * - 스프링 빈 주입은 Hibernate 가 SpringBeanContainer 로 리스너를 만들기 때문에 가능 (스프링 부트 기본 설정)
+ */
+public class AuditingFieldsListener {
+
+    private final AuditorAware<String> auditorAware;
+    private final DateTimeProvider dateTimeProvider;
+
+    public AuditingFieldsListener(AuditorAware<String> auditorAware, DateTimeProvider dateTimeProvider) {
+        this.auditorAware = auditorAware;
+        this.dateTimeProvider = dateTimeProvider;
+    }
+
+    @PrePersist
+    public void touchForCreate(Object target) {
+        if (target instanceof BaseTimeEntity entity) {
+            entity.touchCreated(now());
+        }
+        if (target instanceof BaseEntity entity) { // 등록자 필드가 있는 엔티티만 auditor 를 구함
+            entity.touchCreatedBy(auditorAware.getCurrentAuditor().orElse(null));
+        }
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object target) {
+        if (target instanceof BaseTimeEntity entity) {
+            entity.touchModified(now());
+        }
+        if (target instanceof BaseEntity entity) {
+            entity.touchModifiedBy(auditorAware.getCurrentAuditor().orElse(null));
+        }
+    }
+
+    private LocalDateTime now() {
+        return dateTimeProvider.getNow()
+                .map(LocalDateTime::from) // LocalDateTime 이면 그대로 반환 (새로 만들지 않음)
+                .orElseGet(LocalDateTime::now);
+    }
+}
@@ -1,17 +1,15 @@
 package study.datajpa.entity;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.LastModifiedBy;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-@EntityListeners(AuditingEntityListener.class)// 이벤트를 기반으로 동작한다는걸 알려주는
+//@EntityListeners(AuditingEntityListener.class)// 이벤트를 기반으로 동작한다는걸 알려주는
 @Getter
 @MappedSuperclass
-public class BaseEntity extends BaseTimeEntity{
+public class BaseEntity extends BaseTimeEntity{ // 리스너(AuditingFieldsListener)는 BaseTimeEntity 것을 상속받음
 
     @CreatedBy
     @Column(updatable = false)
@@ -19,4 +17,13 @@ public class BaseEntity extends BaseTimeEntity{
 
     @LastModifiedBy
     private String lastModifiedBy;
+
+    void touchCreatedBy(String auditor) {
+        createdBy = auditor;
+        lastModifiedBy = auditor;
+    }
+
+    void touchModifiedBy(String auditor) {
+        lastModifiedBy = auditor;
+    }
 }
@@ -6,19 +6,28 @@ import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)// 이벤트를 기반으로 동작한다는걸 알려주는
+//@EntityListeners(AuditingEntityListener.class)// 이벤트를 기반으로 동작한다는걸 알려주는
+@EntityListeners(AuditingFieldsListener.class) // 같은 일을 리플렉션 없이 - 시각은 flush 당 한 번 (AuditingBenchmark)
 @Getter
 @MappedSuperclass
 public class BaseTimeEntity {
 
-    @CreatedDate
+    @CreatedDate // AuditingEntityListener 로 되돌려도 동작하도록 애노테이션은 그대로 둠
     @Column(updatable = false)
     private LocalDateTime createdDate;
 
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    void touchCreated(LocalDateTime now) {
+        createdDate = now;
+        lastModifiedDate = now; // AuditingEntityListener 처럼 등록할 때 수정일도 채움
+    }
+
+    void touchModified(LocalDateTime now) {
+        lastModifiedDate = now;
+    }
 }
@@ -31,6 +31,11 @@ public class Item implements Persistable<Long> {
         return id;
     }
 
+    // 영속성 컨텍스트를 거치지 않고 저장했을 때(ItemRepository.insertAll) isNew()가 false가 되도록 직접 채움
+    public void markCreated(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
     @Override
     public boolean isNew() { // ⭐ 실무에서 많이 씀! ⭐
         return createdDate == null; // createdDate가 null라면 새로운 객체라고 알려줌
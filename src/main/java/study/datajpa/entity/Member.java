@@ -2,21 +2,39 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
+@Table(indexes = { // 실제 스키마는 db/migration (Flyway) - 여기는 문서 역할 + 매핑 검증용
+        @Index(name = "idx_member_username_id", columnList = "username, member_id"), // username 조회 + 키셋 페이징 (username, id) 정렬
+        @Index(name = "idx_member_age_username", columnList = "age, username"), // where age = ? order by username desc
+        @Index(name = "idx_member_team_id", columnList = "team_id") // FK
+})
 @NamedQuery(
         name = "Member.findByUsername",   // 큰 장점 : 애플리케이션 로딩 시점에 쿼리를 다 파싱해서 오류 잘 찾아냄
-        query = "select m from Member m where m.username = :username"
+        query = "select m from Member m where m.username = :username",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true") // 2차 캐시 켜져 있을 때만 쿼리 캐시 사용
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team")) // JPA 표준 스펙
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member") // datajpa.cache.enabled=true 일 때만 동작
 public class Member extends BaseTimeEntity{
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50) // 시퀀스 한 번 호출로 id 50개를 메모리에서 나눠 씀 (pooled optimizer)
     @Column(name = "member_id")
     private Long id;
+
+    @Version // 커밋할 때 where version = ? 로 동시 수정 감지 (findLockByUsername 처럼 select ... for update 로 막지 않음)
+    @Setter(AccessLevel.NONE) // Hibernate 만 올림
+    private Long version;
+
     private String username;
     private int age;
 
@@ -43,8 +61,15 @@ public class Member extends BaseTimeEntity{
         this.age = age;
     }
 
+    // 반대쪽(team.members)은 이미 로딩된 컬렉션만 맞춤 - 로딩 안 된 컬렉션은 나중에 DB 에서 읽을 때 바뀐 팀이 반영됨
+    // 이전 팀에서 빼고, 없을 때만 추가 (두 번 부르거나 같은 팀이어도 중복 없음)
     public void changeTeam(Team team) {
+        if (this.team != null && this.team != team && Hibernate.isInitialized(this.team.getMembers())) {
+            this.team.getMembers().remove(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        if (Hibernate.isInitialized(team.getMembers()) && !team.getMembers().contains(this)) {
+            team.getMembers().add(this);
+        }
     }
 }
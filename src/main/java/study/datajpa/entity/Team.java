@@ -2,6 +2,10 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,13 +14,26 @@ import java.util.List;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team") // Member.team 프록시 초기화할 때 DB 대신 캐시에서 꺼냄
 public class Team {
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
+
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     private String name;
 
+    // 전역 default_batch_fetch_size(100) 대신 연관관계별로 따로 지정 가능
+    // 팀 하나에 회원이 많아서 한 번에 가져오는 팀 수를 줄임 (Member.team 프록시는 전역 설정 100 그대로)
+    @BatchSize(size = 50)
     @OneToMany(mappedBy = "team") // foreign key 없는 쪽에 걸기
+    @OptimisticLock(excluded = true) // 회원이 팀을 옮겨도 팀 버전은 그대로 - 같은 팀으로 동시에 들어오는 회원끼리 충돌하지 않게
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
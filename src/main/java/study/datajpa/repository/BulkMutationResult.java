@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.List;
+
+/** 청크 단위 벌크 update/delete 결과 - 청크(트랜잭션)마다 실제로 바뀐 row 수 **/
+@Getter
+@ToString
+public class BulkMutationResult {
+
+    private final List<Integer> rowsPerChunk;
+
+    public BulkMutationResult(List<Integer> rowsPerChunk) {
+        this.rowsPerChunk = Collections.unmodifiableList(rowsPerChunk);
+    }
+
+    public int getChunks() {
+        return rowsPerChunk.size();
+    }
+
+    public int getTotal() {
+        return rowsPerChunk.stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+
+// 대량 적재 - 영속성 컨텍스트를 거치지 않고 JDBC로 바로 저장
+public interface ItemRepositoryCustom {
+
+    // 여러 row를 insert 한 문장에 담아서 저장 (이미 있는 id면 예외)
+    int insertAll(Collection<Item> items);
+
+    // 없는 id만 저장하고 이미 있는 id는 그대로 둠 (createdDate 유지) - 새로 저장한 Item 만 createdDate 가 채워짐
+    int insertIfAbsent(Collection<Item> items);
+}
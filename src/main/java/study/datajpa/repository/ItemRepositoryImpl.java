@@ -0,0 +1,126 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Item은 id를 직접 할당하기 때문에 시퀀스도 필요 없고 JDBC로 바로 넣을 수 있음
+ * - insert 한 문장에 ROWS_PER_STATEMENT 개 row를 담고, 그 문장들을 다시 JDBC batch로 보냄
+ * - createdDate는 호출 한 번에 시간 하나 (AuditingEntityListener가 엔티티마다 now() 하는 대신) - 감사 필드와 같은 DateTimeProvider 에서
+ * - 영속성 컨텍스트를 거치지 않으므로 같은 트랜잭션에서 먼저 persist 한 Item이 있다면 flush 후에 호출해야 함
+ */
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    static final int ROWS_PER_STATEMENT = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider;
+
+    @Override
+    @Transactional
+    public int insertAll(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = now();
+        List<Item> rows = new ArrayList<>(items);
+        int written = write(rows, "insert into item (id, created_date) values ", "", Timestamp.valueOf(now));
+        rows.forEach(item -> item.markCreated(now));
+        return written;
+    }
+
+    /**
+     * 표준 MERGE - 매칭되는 id가 없을 때만 insert (이미 있는 row는 건드리지 않음, 갱신할 컬럼도 없음)
+     * - 같은 id가 여러 번 오면 처음 것만 (한 MERGE 안에 같은 id가 두 번 있으면 키 중복으로 실패)
+     * - 문장마다 먼저 이미 있는 id를 읽어두고 새로 넣은 Item 에만 createdDate 를 채움
+     *   (그 사이 다른 트랜잭션이 같은 id를 넣으면 MERGE 는 건너뛰지만 여기서는 새로 넣은 걸로 보고 채움)
+     */
+    @Override
+    @Transactional
+    public int insertIfAbsent(Collection<Item> items) {
+        Map<Long, Item> distinct = new LinkedHashMap<>();
+        items.forEach(item -> distinct.putIfAbsent(item.getId(), item));
+        if (distinct.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = now();
+        List<Item> rows = new ArrayList<>(distinct.values());
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<Long> ids = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size())).stream()
+                    .map(Item::getId)
+                    .toList();
+            existing.addAll(jdbcTemplate.queryForList("select id from item where id in (" +
+                    String.join(", ", Collections.nCopies(ids.size(), "?")) + ")", Long.class, ids.toArray()));
+        }
+        int written = write(rows,
+                "merge into item i using (values ",
+                ") as s (id, created_date) on i.id = s.id " +
+                        "when not matched then insert (id, created_date) values (s.id, s.created_date)",
+                Timestamp.valueOf(now));
+        rows.stream()
+                .filter(item -> !existing.contains(item.getId()))
+                .forEach(item -> item.markCreated(now));
+        return written;
+    }
+
+    private LocalDateTime now() {
+        return dateTimeProvider.getNow().map(LocalDateTime::from).orElseGet(LocalDateTime::now);
+    }
+
+    private int write(List<Item> rows, String prefix, String suffix, Timestamp createdDate) {
+        int fullStatements = rows.size() / ROWS_PER_STATEMENT;
+        int remainder = rows.size() % ROWS_PER_STATEMENT;
+
+        List<Object[]> batchArgs = new ArrayList<>(fullStatements);
+        for (int i = 0; i < fullStatements; i++) {
+            batchArgs.add(arguments(rows.subList(i * ROWS_PER_STATEMENT, (i + 1) * ROWS_PER_STATEMENT), createdDate));
+        }
+
+        int written = 0;
+        if (!batchArgs.isEmpty()) {
+            written += sum(jdbcTemplate.batchUpdate(sql(prefix, suffix, ROWS_PER_STATEMENT), batchArgs));
+        }
+        if (remainder > 0) {
+            written += jdbcTemplate.update(sql(prefix, suffix, remainder),
+                    arguments(rows.subList(rows.size() - remainder, rows.size()), createdDate));
+        }
+        return written;
+    }
+
+    private static String sql(String prefix, String suffix, int rows) {
+        return prefix + String.join(", ", Collections.nCopies(rows, "(?, ?)")) + suffix;
+    }
+
+    private static Object[] arguments(List<Item> rows, Timestamp createdDate) {
+        Object[] args = new Object[rows.size() * 2];
+        for (int i = 0; i < rows.size(); i++) {
+            args[i * 2] = rows.get(i).getId();
+            args[i * 2 + 1] = createdDate;
+        }
+        return args;
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0); // SUCCESS_NO_INFO(-2) 는 0으로
+        }
+        return total;
+    }
+}
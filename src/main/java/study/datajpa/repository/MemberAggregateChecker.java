@@ -0,0 +1,54 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작할 때 MemberAggregateStore 를 DB 에서 채우고, interval 마다 DB count 와 비교해서 어긋난 값을 바로잡음
+ */
+@Slf4j
+public class MemberAggregateChecker implements SmartLifecycle {
+
+    private final MemberAggregateStore store;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public MemberAggregateChecker(MemberAggregateStore store, Duration interval) {
+        this.store = store;
+        this.interval = interval;
+    }
+
+    @Override
+    public synchronized void start() {
+        store.reconcile();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("member-aggregate-checker")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::check, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        try {
+            store.check();
+        } catch (RuntimeException e) { // 예외가 나가면 다음 실행이 취소됨
+            log.warn("Member aggregate check failed", e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+}
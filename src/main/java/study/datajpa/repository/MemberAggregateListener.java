@@ -0,0 +1,92 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+/**
+ * 커밋된 Member insert/delete/update 를 MemberAggregateStore 에 반영 (롤백된 트랜잭션은 안 옴)
+ * - 엔티티 객체 대신 이벤트의 state 배열을 씀 -> 커밋 후에 엔티티를 또 바꿔도 DB 에 나간 값 기준
+ */
+@RequiredArgsConstructor
+public class MemberAggregateListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final MemberAggregateStore store;
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Member.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (isMember(event.getPersister())) {
+            Object[] state = event.getState();
+            store.added(teamId(state, event.getPersister()), age(state, event.getPersister()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (isMember(event.getPersister())) {
+            Object[] state = event.getDeletedState();
+            store.removed(teamId(state, event.getPersister()), age(state, event.getPersister()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!isMember(event.getPersister())) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        if (oldState == null) { // 이전 값을 모르는 update (detached 엔티티 강제 update 등) -> 다시 셈
+            store.reconcile();
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        store.changed(teamId(oldState, persister), age(oldState, persister),
+                teamId(event.getState(), persister), age(event.getState(), persister));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private boolean isMember(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private static int age(Object[] state, EntityPersister persister) {
+        return (Integer) state[persister.getPropertyIndex("age")];
+    }
+
+    // 프록시는 초기화하지 않고 id 만 꺼냄
+    private static Long teamId(Object[] state, EntityPersister persister) {
+        Object team = state[persister.getPropertyIndex("team")];
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getInternalIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.repository;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+import study.datajpa.support.ApproximateCountCache;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * MemberRepository 프록시에 씌워서 엔티티 이벤트 없이 회원을 바꾸는 메소드 뒤에 MemberAggregateStore.reconcileAfterCommit()
+ * + ApproximateCountCache 의 전체 회원 수(MEMBER_COUNT)도 커밋 후에 지움
+ * - @Modifying 쿼리 메소드 (JPQL/네이티브 벌크 update, delete)
+ * - Spring Data 의 *InBatch 메소드 (deleteAllInBatch, deleteAllByIdInBatch) - delete 쿼리 한 방이라 POST_COMMIT_DELETE 가 없음
+ * 예외가 나면 바뀐 게 없다고 보고 그냥 던짐 (트랜잭션 안이면 어차피 롤백)
+ */
+public class MemberAggregateReconcileInterceptor implements MethodInterceptor {
+
+    private final Supplier<MemberAggregateStore> aggregateStore;
+    private final Supplier<ApproximateCountCache> countCache;
+    private final Map<Method, Boolean> bypassesEvents = new ConcurrentHashMap<>();
+
+    public MemberAggregateReconcileInterceptor(Supplier<MemberAggregateStore> aggregateStore,
+                                               Supplier<ApproximateCountCache> countCache) {
+        this.aggregateStore = aggregateStore;
+        this.countCache = countCache;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (bypassesEvents.computeIfAbsent(invocation.getMethod(), MemberAggregateReconcileInterceptor::bypassesEvents)) {
+            aggregateStore.get().reconcileAfterCommit();
+            countCache.get().invalidateAfterCommit(MemberRepository.MEMBER_COUNT);
+        }
+        return result;
+    }
+
+    static boolean bypassesEvents(Method method) {
+        return method.getName().endsWith("InBatch") || AnnotatedElementUtils.hasAnnotation(method, Modifying.class);
+    }
+}
@@ -0,0 +1,149 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 회원 집계를 메모리에 들고 있음 - 전체 회원 수, 팀별 회원 수, 나이별 회원 수를 count 쿼리 없이 O(1)
+ * - 커밋된 insert/delete/update(팀 이동, 나이 변경)는 MemberAggregateListener 가 바로 반영
+ * - 이벤트가 안 나오는 벌크 연산(JPQL/JDBC)은 커밋 후 reconcile() 로 DB 에서 다시 셈
+ * - 다시 세는 도중에 커밋된 변경은 빠지거나 두 번 들어갈 수 있음 -> MemberAggregateChecker 가 주기적으로 맞춤
+ * 커밋된 값만 세기 때문에 같은 트랜잭션에서 방금 저장한 회원은 커밋 전까지 안 보임 (정확한 값이 필요하면 count 쿼리)
+ */
+@Slf4j
+public class MemberAggregateStore {
+
+    private static final String COUNT_SQL = "select team_id, age, count(*) from member group by team_id, age";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter drift;
+    private volatile Counts counts = new Counts();
+
+    public MemberAggregateStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.drift = Counter.builder("datajpa.aggregates.drift")
+                .description("consistency checks that found the in-memory member aggregates out of date")
+                .register(meterRegistry);
+    }
+
+    public long total() {
+        return counts.total.sum();
+    }
+
+    /** teamId 가 null 이면 팀 없는 회원 수 **/
+    public long countByTeam(Long teamId) {
+        return teamId == null ? counts.withoutTeam.sum() : sum(counts.teams.get(teamId));
+    }
+
+    public long countByAge(int age) {
+        return sum(counts.ages.get(age));
+    }
+
+    /** 회원이 있는 팀만 **/
+    public SortedMap<Long, Long> teamCounts() {
+        return nonZero(counts.teams);
+    }
+
+    public SortedMap<Integer, Long> ageHistogram() {
+        return nonZero(counts.ages);
+    }
+
+    void added(Long teamId, int age) {
+        counts.add(teamId, age, 1);
+    }
+
+    void removed(Long teamId, int age) {
+        counts.add(teamId, age, -1);
+    }
+
+    void changed(Long oldTeamId, int oldAge, Long newTeamId, int newAge) {
+        if (!Objects.equals(oldTeamId, newTeamId) || oldAge != newAge) {
+            Counts current = counts;
+            current.add(oldTeamId, oldAge, -1);
+            current.add(newTeamId, newAge, 1);
+        }
+    }
+
+    /** DB 에서 다시 세서 통째로 교체 **/
+    public void reconcile() {
+        counts = load();
+    }
+
+    /** 트랜잭션 안이면 커밋된 뒤에 (롤백되면 그대로), 밖이면 바로 reconcile **/
+    public void reconcileAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reconcile();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reconcile();
+            }
+        });
+    }
+
+    /** DB 와 비교해서 다르면 경고 + datajpa.aggregates.drift 올리고 DB 값으로 교체 **/
+    public boolean check() {
+        Counts actual = load();
+        Counts current = counts;
+        boolean consistent = current.total.sum() == actual.total.sum()
+                && current.withoutTeam.sum() == actual.withoutTeam.sum()
+                && nonZero(current.teams).equals(nonZero(actual.teams))
+                && nonZero(current.ages).equals(nonZero(actual.ages));
+        if (!consistent) {
+            log.warn("Member aggregates drifted from the database (total {} -> {}), replacing them",
+                    current.total.sum(), actual.total.sum());
+            drift.increment();
+            counts = actual;
+        }
+        return consistent;
+    }
+
+    private Counts load() {
+        Counts loaded = new Counts();
+        jdbcTemplate.query(COUNT_SQL, rs -> {
+            loaded.add(rs.getObject(1, Long.class), rs.getInt(2), rs.getLong(3));
+        });
+        return loaded;
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder == null ? 0 : adder.sum();
+    }
+
+    private static <K extends Comparable<K>> SortedMap<K, Long> nonZero(Map<K, LongAdder> adders) {
+        SortedMap<K, Long> result = new TreeMap<>();
+        adders.forEach((key, adder) -> {
+            long count = adder.sum();
+            if (count != 0) {
+                result.put(key, count);
+            }
+        });
+        return result;
+    }
+
+    private static final class Counts {
+        final LongAdder total = new LongAdder();
+        final LongAdder withoutTeam = new LongAdder();
+        final Map<Long, LongAdder> teams = new ConcurrentHashMap<>();
+        final Map<Integer, LongAdder> ages = new ConcurrentHashMap<>();
+
+        void add(Long teamId, int age, long delta) {
+            total.add(delta);
+            (teamId == null ? withoutTeam : teams.computeIfAbsent(teamId, id -> new LongAdder())).add(delta);
+            ages.computeIfAbsent(age, a -> new LongAdder()).add(delta);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+/**
+ * 청크 단위 벌크 update/delete (MemberRepository 가 상속)
+ * - @Modifying(clearAutomatically = true) 처럼 영속성 컨텍스트 전체를 비우지 않고 바뀐 회원만 1차/2차 캐시에서 제거
+ * - 트랜잭션 밖에서 호출하면 chunkSize 개씩 각각 커밋 (락을 오래 잡지 않고 undo 로그도 청크만큼만)
+ * - 트랜잭션 안에서 호출하면 그 트랜잭션에 참여 (커밋은 한 번)
+ */
+public interface MemberBulkRepository {
+
+    // fromAge <= age <= toAge 인 회원의 나이를 delta 만큼 더함
+    BulkMutationResult bulkAgePlusInChunks(int fromAge, int toAge, int delta, int chunkSize);
+
+    // 팀 회원 전체의 나이를 delta 만큼 더함
+    BulkMutationResult bulkAgePlusByTeamInChunks(Long teamId, int delta, int chunkSize);
+
+    // fromAge <= age <= toAge 인 회원 삭제
+    BulkMutationResult bulkDeleteByAgeInChunks(int fromAge, int toAge, int chunkSize);
+}
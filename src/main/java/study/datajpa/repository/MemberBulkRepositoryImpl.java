@@ -0,0 +1,195 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.ApproximateCountCache;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 회원 id 순서로 chunkSize 개씩 잘라서 (키셋) 청크마다 트랜잭션 하나로 update/delete
+ * - JPQL 벌크 연산은 Hibernate 가 member 2차 캐시 영역 전체(+ member 를 참조하는 컬렉션 캐시)를 비움
+ *   -> 여기서는 JDBC 로 실행하고 바뀐 id 만 직접 제거 (1차 캐시: detach, 2차 캐시: evictEntityData)
+ * - 쿼리 캐시는 member 테이블 타임스탬프만 갱신 (Hibernate 가 일반 update 때 하는 것과 같음)
+ * - 끝나면 MemberAggregateStore 를 다시 세고 ApproximateCountCache 의 전체 회원 수를 지움 (JDBC 라 엔티티 이벤트가 없음)
+ * - update 는 version 도 올려서 그 사이에 회원을 읽어둔 낙관적 락 트랜잭션이 덮어쓰지 못하게 함
+ * - 시작 전에 현재 영속성 컨텍스트를 flush 해서 아직 안 나간 변경이 덮어써지지 않게 함 (flushAutomatically)
+ */
+@RequiredArgsConstructor
+public class MemberBulkRepositoryImpl implements MemberBulkRepository {
+
+    private static final String[] QUERY_SPACES = {"member"};
+    private static final String TEAM_MEMBERS_ROLE = Team.class.getName() + ".members";
+
+    private final EntityManager em;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final DateTimeProvider dateTimeProvider;
+    private final MemberAggregateStore aggregateStore;
+    private final ApproximateCountCache countCache;
+
+    @Override
+    public BulkMutationResult bulkAgePlusInChunks(int fromAge, int toAge, int delta, int chunkSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fromAge", fromAge)
+                .addValue("toAge", toAge)
+                .addValue("delta", delta);
+        // 청크를 고른 뒤에 다른 트랜잭션이 나이를 바꿨을 수 있으니 update 에서도 조건을 다시 검사
+        return inChunks("age between :fromAge and :toAge", params, chunkSize,
+                "update member set age = age + :delta, version = version + 1, last_modified_date = :now " +
+                        "where member_id in (:ids) and age between :fromAge and :toAge",
+                false);
+    }
+
+    @Override
+    public BulkMutationResult bulkAgePlusByTeamInChunks(Long teamId, int delta, int chunkSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("teamId", teamId)
+                .addValue("delta", delta);
+        return inChunks("team_id = :teamId", params, chunkSize,
+                "update member set age = age + :delta, version = version + 1, last_modified_date = :now " +
+                        "where member_id in (:ids) and team_id = :teamId",
+                false);
+    }
+
+    @Override
+    public BulkMutationResult bulkDeleteByAgeInChunks(int fromAge, int toAge, int chunkSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fromAge", fromAge)
+                .addValue("toAge", toAge);
+        return inChunks("age between :fromAge and :toAge", params, chunkSize,
+                "delete from member where member_id in (:ids) and age between :fromAge and :toAge",
+                true);
+    }
+
+    private BulkMutationResult inChunks(String condition, MapSqlParameterSource params, int chunkSize,
+                                        String mutation, boolean delete) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            em.flush();
+        }
+
+        String selectChunk = "select member_id, team_id from member where " + condition +
+                " and member_id > :afterId order by member_id fetch first :chunkSize rows only";
+        params.addValue("chunkSize", chunkSize);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager); // 바깥 트랜잭션이 없으면 청크마다 커밋
+        List<Integer> rowsPerChunk = new ArrayList<>();
+        long afterId = Long.MIN_VALUE;
+        try {
+            while (true) {
+                params.addValue("afterId", afterId);
+                Chunk chunk = tx.execute(status -> mutateChunk(selectChunk, mutation, params, delete));
+                if (chunk.memberIds.isEmpty()) {
+                    break;
+                }
+                rowsPerChunk.add(chunk.rows);
+                detachFromPersistenceContext(chunk.memberIds, delete);
+                if (chunk.memberIds.size() < chunkSize) {
+                    break;
+                }
+                afterId = chunk.memberIds.get(chunk.memberIds.size() - 1);
+            }
+        } finally {
+            if (!rowsPerChunk.isEmpty()) { // 중간에 실패해도 이미 커밋된 청크가 있음
+                aggregateStore.reconcileAfterCommit(); // JDBC 라 Hibernate 이벤트가 안 나감
+                countCache.invalidateAfterCommit(MemberRepository.MEMBER_COUNT);
+            }
+        }
+        return new BulkMutationResult(rowsPerChunk);
+    }
+
+    private Chunk mutateChunk(String selectChunk, String mutation, MapSqlParameterSource params, boolean delete) {
+        Chunk chunk = new Chunk();
+        jdbcTemplate.query(selectChunk, params, rs -> {
+            chunk.memberIds.add(rs.getLong("member_id"));
+            long teamId = rs.getLong("team_id");
+            if (!rs.wasNull()) {
+                chunk.teamIds.add(teamId);
+            }
+        });
+        if (chunk.memberIds.isEmpty()) {
+            return chunk;
+        }
+
+        LocalDateTime now = dateTimeProvider.getNow().map(LocalDateTime::from).orElseGet(LocalDateTime::now);
+        chunk.rows = jdbcTemplate.update(mutation, new MapSqlParameterSource(params.getValues())
+                .addValue("ids", chunk.memberIds)
+                .addValue("now", Timestamp.valueOf(now)));
+
+        evictFromSecondLevelCache(chunk, delete);
+        return chunk;
+    }
+
+    /** Hibernate 의 BulkOperationCleanupAction 과 같은 순서 - 쿼리 캐시 무효화 표시 후 트랜잭션이 끝나면 바뀐 id 만 제거 **/
+    private void evictFromSecondLevelCache(Chunk chunk, boolean delete) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        CacheImplementor cache = session.getFactory().getCache();
+        TimestampsCache timestamps = cache.getTimestampsCache(); // 2차 캐시를 안 쓰면 null
+        if (timestamps != null) {
+            timestamps.preInvalidate(QUERY_SPACES, session);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                chunk.memberIds.forEach(id -> cache.evictEntityData(Member.class, id));
+                if (delete) { // 팀의 회원 목록이 바뀜
+                    chunk.teamIds.forEach(id -> cache.evictCollectionData(TEAM_MEMBERS_ROLE, id));
+                }
+                if (timestamps != null) {
+                    timestamps.invalidate(QUERY_SPACES, session);
+                }
+            }
+        });
+    }
+
+    /** 호출한 쪽 영속성 컨텍스트(바깥 트랜잭션, OSIV)에 올라와 있는 회원만 detach **/
+    private void detachFromPersistenceContext(List<Long> memberIds, boolean delete) {
+        EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(em.getEntityManagerFactory());
+        if (current == null) {
+            return;
+        }
+        SessionImplementor session = current.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Member.class);
+        for (Long id : memberIds) {
+            Object entity = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+            if (entity == null) {
+                continue;
+            }
+            Member member = (Member) entity;
+            Team team = member.getTeam();
+            if (delete && team != null && Hibernate.isInitialized(team) && Hibernate.isInitialized(team.getMembers())) {
+                team.getMembers().remove(member); // 연관관계 주인이 아닌 쪽이라 SQL 은 안 나감
+            }
+            session.detach(member);
+        }
+    }
+
+    private static class Chunk {
+        final List<Long> memberIds = new ArrayList<>();
+        final Set<Long> teamIds = new LinkedHashSet<>();
+        int rows;
+    }
+}
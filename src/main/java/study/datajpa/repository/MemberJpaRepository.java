@@ -2,18 +2,24 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.support.ApproximateCountCache;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext // Spring Boot가 Spring Container(JPA에 있는 영속성 컨텍스트) entityManager를 가져와줌
     private EntityManager em; // 엔티티를 넣으면 JPA가 알아서 insert랑 select쿼리를 DB에 날려줌
 
+    private final MemberAggregateStore aggregateStore;
+    private final ApproximateCountCache countCache;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -74,8 +80,11 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age +1 where m.age >= :age")
+        int updated = em.createQuery("update Member m set m.age = m.age +1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
+        aggregateStore.reconcileAfterCommit(); // 벌크 연산은 엔티티 이벤트가 안 나가서 나이별 집계를 다시 셈
+        countCache.invalidateAfterCommit(MemberRepository.MEMBER_COUNT);
+        return updated;
     }
 }
\ No newline at end of file
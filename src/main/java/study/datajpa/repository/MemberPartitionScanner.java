@@ -0,0 +1,207 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.datajpa.entity.Member;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 회원 id 범위를 chunkSize 단위로 잘라서 (k * chunkSize 이상 (k + 1) * chunkSize 미만) 워커 여러 개가 나눠 처리
+ * - 청크마다 트랜잭션 하나 -> 워커 스레드마다 자기 EntityManager, 청크가 끝나면 영속성 컨텍스트도 같이 닫힘
+ * - 동시에 처리 중인 청크는 parallelism 개까지 (Semaphore) - 다 차면 다음 청크를 넘기지 않고 기다림 (백프레셔)
+ * - 청크 처리와 같은 트랜잭션에서 member_scan_checkpoint 에 기록 -> 실패 후 같은 job 으로 다시 실행하면 커밋된 청크는 건너뜀
+ * - 청크 경계가 id 기준으로 고정이라 다시 실행할 때 최소/최대 id 가 달라져도 체크포인트가 그대로 맞음 (chunkSize 는 같아야 함)
+ * - 시작할 때의 최대 id 까지만 처리 - 도중에 저장된 회원은 다음 실행 몫
+ * findAll() 은 한 스레드, 커넥션 하나로 전체를 올리지만 여기서는 커넥션 풀 크기까지 나눠서 씀
+ */
+@Slf4j
+public class MemberPartitionScanner {
+
+    public enum WorkerPool {
+        FORK_JOIN, // 플랫폼 스레드 parallelism 개
+        VIRTUAL // 청크마다 가상 스레드 (동시 개수는 똑같이 parallelism 으로 제한)
+    }
+
+    private static final String CHUNK_JPQL = "select m from Member m where m.id >= :from and m.id < :to order by m.id";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock; // 체크포인트 completed_date - 감사 시각과 같은 Clock 빈
+    private final WorkerPool workerPool;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public MemberPartitionScanner(EntityManager em, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry, Clock clock, WorkerPool workerPool, int parallelism, int chunkSize) {
+        Assert.isTrue(parallelism > 0, "parallelism must be positive");
+        Assert.isTrue(chunkSize > 0, "chunkSize must be positive");
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.workerPool = workerPool;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public MemberScanResult scan(String job, Consumer<List<Member>> processor) {
+        return scan(job, chunkSize, processor, progress -> {
+        });
+    }
+
+    /**
+     * processor 는 청크 트랜잭션 안에서 워커 스레드가 부름 - 넘겨받은 회원을 고치면 청크 커밋 때 반영
+     * progressListener 도 워커 스레드에서 동시에 불릴 수 있음
+     * 청크 하나라도 실패하면 새 청크는 더 넘기지 않고, 처리 중인 청크가 끝나길 기다렸다가 첫 예외를 던짐
+     */
+    public MemberScanResult scan(String job, int chunkSize, Consumer<List<Member>> processor,
+                                 Consumer<MemberScanProgress> progressListener) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "MemberPartitionScanner commits chunk by chunk - call it outside @Transactional");
+        Assert.isTrue(chunkSize > 0, "chunkSize must be positive");
+        long started = System.nanoTime();
+
+        long[] range = jdbcTemplate.queryForObject("select min(member_id), max(member_id) from member",
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+        if (range == null) {
+            deleteCheckpoints(job);
+            return new MemberScanResult(job, 0, 0, 0, Duration.ofNanos(System.nanoTime() - started));
+        }
+        long firstChunk = Math.floorDiv(range[0], chunkSize);
+        long lastChunk = Math.floorDiv(range[1], chunkSize);
+        Set<Long> committed = committedChunks(job, chunkSize);
+        long skipped = committed.stream().filter(from -> from >= firstChunk * chunkSize && from <= lastChunk * chunkSize).count();
+        long totalChunks = lastChunk - firstChunk + 1;
+
+        Counter completedChunks = chunks(job, "completed");
+        Counter failedChunks = chunks(job, "failed");
+        chunks(job, "skipped").increment(skipped);
+        Counter scannedMembers = Counter.builder("datajpa.scan.members").tag("job", job).register(meterRegistry);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong members = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(parallelism);
+        log.info("Member scan [{}] started: {} chunks of {} ids ({} already committed), parallelism {} on {}",
+                job, totalChunks, chunkSize, skipped, parallelism, workerPool);
+
+        try (ExecutorService workers = newWorkers()) { // close() 가 넘긴 청크가 다 끝날 때까지 기다림
+            for (long chunk = firstChunk; chunk <= lastChunk; chunk++) {
+                long from = chunk * chunkSize;
+                if (committed.contains(from)) {
+                    continue;
+                }
+                if (!acquire(inFlight, failure) || failure.get() != null) {
+                    break;
+                }
+                workers.execute(() -> {
+                    try {
+                        int count = transactionTemplate.execute(status -> processChunk(job, from, from + chunkSize, processor));
+                        completedChunks.increment();
+                        scannedMembers.increment(count);
+                        MemberScanProgress progress = new MemberScanProgress(job, totalChunks, skipped,
+                                completed.incrementAndGet(), members.addAndGet(count));
+                        log.debug("Member scan [{}] chunk [{}, {}) committed: {}", job, from, from + chunkSize, progress);
+                        progressListener.accept(progress);
+                    } catch (RuntimeException | Error e) { // 워커 풀이 삼키지 않게 여기서 받아둠
+                        failedChunks.increment();
+                        if (!failure.compareAndSet(null, e)) {
+                            failure.get().addSuppressed(e);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        MemberScanResult result = new MemberScanResult(job, completed.get(), skipped, members.get(),
+                Duration.ofNanos(System.nanoTime() - started));
+        if (failure.get() != null) {
+            log.warn("Member scan [{}] stopped after {} - run the same job again to resume", job, result);
+            if (failure.get() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) failure.get();
+        }
+        deleteCheckpoints(job); // 끝까지 처리함 - 같은 job 으로 다시 부르면 처음부터
+        log.info("Member scan [{}] finished: {}", job, result);
+        return result;
+    }
+
+    private int processChunk(String job, long from, long to, Consumer<List<Member>> processor) {
+        List<Member> members = em.createQuery(CHUNK_JPQL, Member.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        if (!members.isEmpty()) { // 시퀀스 allocationSize 때문에 id 가 비어있는 청크도 있음
+            processor.accept(members);
+        }
+        jdbcTemplate.update("insert into member_scan_checkpoint (job_name, chunk_from, chunk_to, members, completed_date) " +
+                "values (?, ?, ?, ?, ?)", job, from, to, members.size(), Timestamp.valueOf(LocalDateTime.now(clock)));
+        return members.size();
+    }
+
+    private Set<Long> committedChunks(String job, int chunkSize) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select chunk_from from member_scan_checkpoint where job_name = ? and chunk_to - chunk_from = ?",
+                Long.class, job, chunkSize));
+    }
+
+    public void deleteCheckpoints(String job) {
+        jdbcTemplate.update("delete from member_scan_checkpoint where job_name = ?", job);
+    }
+
+    private ExecutorService newWorkers() {
+        return switch (workerPool) {
+            case FORK_JOIN -> new ForkJoinPool(parallelism);
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("member-scan-", 0).factory());
+        };
+    }
+
+    /** 처리 중인 청크가 parallelism 개면 하나 끝날 때까지 기다림 **/
+    private static boolean acquire(Semaphore inFlight, AtomicReference<Throwable> failure) {
+        try {
+            inFlight.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new IllegalStateException("Member scan interrupted", e));
+            return false;
+        }
+    }
+
+    private Counter chunks(String job, String result) {
+        return Counter.builder("datajpa.scan.chunks")
+                .tag("job", job)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -2,20 +2,25 @@ package study.datajpa.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 //@Repository 스프링 컴포넌트 스캔을 통해 알아서 인식 하기 때문에 생략 가능함!
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom { // 엄청 많은 기능을 제공함
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, MemberBulkRepository { // 엄청 많은 기능을 제공함
 
     /** 1. 메소드 이름으로 쿼리 생성 *
     // ✅ 쿼리 단순하면
@@ -43,7 +48,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     *//** 5. 파라미터 바인딩 **//*
     @Query("select m from Member m where m.username in :username")
-    List<Member> findByNames(@Param("names") List<String> names);
+    List<Member> findByNames(@Param("names") List<String> names); // -> MemberRepositoryCustom.findByUsernames (IN 절 padding + 청크)
 
     *//** 6. 반환 타입 **//*
     List<Member> findListByUsername(String username); // 컬렉션
@@ -58,6 +63,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Page<Member> findByTopAge(int age, Pageable pageable);
 
     *//** 9. 벌크성 수정 쿼리 **//*
+    // 영속성 컨텍스트를 통째로 비우지 않고 바뀐 회원만 캐시에서 빼려면 bulkAgePlusInChunks (MemberBulkRepository)
     @Modifying(clearAutomatically = true) // executeUpdate랑 같은 기능이며, 안넣어주면 getResultList 같은건줄 앎
     @Query("update Member m set m.age = :age where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
@@ -77,6 +83,25 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m from Member m")
     List<Member> findMemberEntityGraph();
 
+    @Query("select m from Member m left join fetch m.team")
+    List<Member> findMemberFetchJoin(); // 위 주석의 10번 패치 조인 (벤치마크에서 EntityGraph랑 비교)
+
+    // count 쿼리 없이 size + 1 개를 조회해서 다음 페이지 여부만 판단
+    Slice<Member> findSliceBy(Pageable pageable);
+
+    /** 목록 API 전용 - 엔티티 대신 DTO로 바로 조회 (팀 이름까지 조인 한 번에) **/
+    // 영속성 컨텍스트에 엔티티/스냅샷이 안 만들어지고, count 쿼리는 조인 없이 따로
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoBy(Pageable pageable);
+
+    // ApproximateCountCache 에서 조건 없는 전체 회원 수의 키 - Page 와 Slice 가 같은 값을 씀, 벌크 연산이 끝나면 지움
+    String MEMBER_COUNT = "Member.count";
+
+    // 무한 스크롤용 - count 쿼리 없이 size + 1 개를 조회해서 hasNext 만 판단 (전체 수는 ApproximateCountCache 의 MEMBER_COUNT)
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Slice<MemberDto> findMemberDtoSliceBy(Pageable pageable);
+
     // 회원 데이터를 쓸 때 팀 데이터를 쓸 일이 너무 많기 때문에 EntityGraph로 뽑는다
     @EntityGraph(attributePaths = ("team"))
 //    @EntityGraph("Member.all")
@@ -85,8 +110,12 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     /** 11. JPA Hint & Lock **/
     // 주로 트래픽이 많은 API 몇개에 넣어서 최적화 하는 편! 처음부터 막 튜닝을 깔아서 개발 한다는 건 좋지 않음! 그런거 없이도 성능 잘 나옴!
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true")) // 내부적으로 최적화를 해서 스냅샷을 안 만든다. 변경 감지 체크를 안함!⭐
+    // 바이트코드 향상(dirty tracking) 이후 flush 때 필드 비교 비용은 거의 없어졌지만, 스냅샷 메모리는 이 힌트로만 줄어듦
+    @Transactional(readOnly = true) // 트랜잭션 밖에서 부르면 복제본으로 (datajpa.routing) - 쓰기 트랜잭션 안에서는 참여해서 primary 그대로
     Member findReadOnlyByUsername(String username);
 
+    // select ... for update - 같은 회원에 몰리는 수정(핫 로우)용
+    // 충돌이 드문 수정은 락 없이 @Version + OptimisticRetryExecutor 가 더 빠름 (MemberLockBenchmark)
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
@@ -102,10 +131,38 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Member findByNativeQuery(String username);
 
     /** 네이티브 쿼리 - Projections 활용 (정적 쿼리를 네이티브 쿼리로 짜야할때는 Projections를 활용할 수 있다.) **/
-    @Query(value = "select m.member_id as id, m.username, t.name as teamname" +
-            "from member m left join team t",
+    // 페이징 SQL(offset/fetch first, limit ...)은 직접 쓰지 않음 -> Hibernate가 Dialect에 맞게 붙여주기 때문에 DB가 바뀌어도 그대로 동작
+    // count는 조인 없이 member만 (team은 left join + FK라 회원 수가 늘어나지 않음)
+    String MEMBER_PROJECTION_SQL = "select m.member_id as id, m.username, t.name as teamName " +
+            "from member m left join team t on m.team_id = t.team_id";
+
+    @Query(value = MEMBER_PROJECTION_SQL,
             countQuery = "select count(*) from member", // countQuery 꼭 넣어줘야함
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
     // 페이징 되는게 장점! 최근에 생긴 기능이라 실무에서 써 볼 기회가 없었음 이제 써볼까하심!
+
+    /** 네이티브 쿼리 - 키셋 페이징 (username, member_id) 다음부터 limit 개 **/
+    // row value 비교 (m.username, m.member_id) > (...) 는 DB 마다 지원/인덱스 사용이 달라서 풀어서 씀
+    // 앞의 username >= 조건이 idx_member_username_id 인덱스 범위 스캔을 잡아줌 + 인덱스 정렬 그대로 사용, count 쿼리 없음
+    String MEMBER_PROJECTION_KEYSET_SQL = MEMBER_PROJECTION_SQL +
+            " where m.username >= :username and (m.username > :username or m.member_id > :id)" +
+            " order by m.username, m.member_id";
+
+    @Query(value = MEMBER_PROJECTION_KEYSET_SQL, nativeQuery = true)
+    List<MemberProjection> findByNativeProjectionAfter(@Param("username") String username, @Param("id") Long id, Limit limit);
+
+    /** 키셋(Seek) 페이징 - offset 대신 마지막으로 본 (username, id) 다음부터 조회 **/
+    // offset은 앞의 row를 다 읽고 버리지만 키셋은 인덱스(username, member_id)로 바로 찾아가서 몇 번째 페이지든 속도가 일정함⭐
+    // Window는 count 쿼리를 날리지 않고 limit + 1 로 다음 페이지 여부만 확인함
+    Window<Member> findByOrderByUsernameAscIdAsc(ScrollPosition position, Limit limit);
+
+    /** 스트리밍 조회 - List로 한 번에 올리지 않고 DB 커서에서 fetchSize 만큼씩 끌어옴 **/
+    // DTO로 바로 조회하기 때문에 엔티티/스냅샷이 영속성 컨텍스트에 쌓이지 않음, 반드시 트랜잭션 안에서 쓰고 close 해줘야 함⭐
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t order by m.id")
+    Stream<MemberDto> streamMemberDto();
 }
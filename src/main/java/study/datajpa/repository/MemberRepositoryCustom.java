@@ -1,11 +1,28 @@
 package study.datajpa.repository;
 
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
                 // 복잡한 코드를 만들 때 쿼리 dsl로 Custom 해서 많이 씀
 public interface MemberRepositoryCustom {
 
     List<Member> findMemberCustom();
+
+    // username in (...) - 중복은 빼고 datajpa.query.in-clause-chunk-size 개씩 나눠서 조회 (순서 보장 안 함)
+    List<Member> findByUsernames(Collection<String> usernames);
+
+    // 동적 검색 - 값이 있는 조건만 and 로 묶음, 팀은 패치 조인 (id 순)
+    // 조건 조합마다 JPQL 이 하나로 정해져 있어서 값이 달라도 파라미터만 바인딩 (MemberSearchQuery)
+    List<Member> search(MemberSearchCondition condition);
+
+    // 대량 저장 - batchSize 마다 flush/clear 해서 영속성 컨텍스트가 계속 커지지 않게 함
+    long saveAllBatched(Stream<Member> members, int batchSize);
+
+    // 전체 회원을 커서(ScrollableResults)로 한 건씩 처리 - 처리한 엔티티는 바로 detach 해서 메모리 일정하게 유지
+    long forEachMember(int fetchSize, Consumer<Member> action);
 }
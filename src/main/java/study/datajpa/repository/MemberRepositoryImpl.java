@@ -2,18 +2,112 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.config.QueryPlanProperties;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
     private final EntityManager em;
+    private final QueryPlanProperties queryPlanProperties;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    /**
+     * 리스트 길이마다 SQL 이 달라지지 않게 in_clause_parameter_padding 과 같이 씀
+     * - 청크 크기(2의 거듭제곱) 이하는 padding 으로 1, 2, 4 ... 청크 크기 자리 SQL 중 하나
+     * - 넘으면 청크 크기만큼씩 잘라서 여러 번 조회 -> 값이 아무리 많아도 SQL 모양은 log2(청크 크기) + 1 개
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByUsernames(Collection<String> usernames) {
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(usernames));
+        int chunkSize = queryPlanProperties.getInClauseChunkSize();
+        List<Member> result = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            result.addAll(em.createQuery("select m from Member m where m.username in :usernames", Member.class)
+                    .setParameter("usernames", distinct.subList(from, Math.min(from + chunkSize, distinct.size())))
+                    .getResultList());
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> search(MemberSearchCondition condition) {
+        MemberSearchQuery query = MemberSearchQuery.of(condition);
+        if (query == null) { // ageGoe > ageLoe - 결과가 없는 게 확실하니 쿼리 안 날림
+            return List.of();
+        }
+        return query.create(em).getResultList();
+    }
+
+    /**
+     * batchSize는 hibernate.jdbc.batch_size 와 맞춰야 flush 한 번에 insert batch 하나로 나감
+     * 바깥 트랜잭션에 참여해도 그쪽 엔티티는 그대로 두고 여기서 저장한 회원만 영속성 컨텍스트에서 뺌 (em.clear() 안 씀)
+     * 주의) Member.changeTeam()은 team.members 에도 추가하기 때문에 같은 Team 객체에 계속 붙이면 그 컬렉션은 커짐
+     */
+    @Override
+    @Transactional
+    public long saveAllBatched(Stream<Member> members, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        long count = 0;
+        List<Member> batch = new ArrayList<>(batchSize);
+        Iterator<Member> iterator = members.iterator();
+        while (iterator.hasNext()) {
+            Member member = iterator.next();
+            em.persist(member);
+            batch.add(member);
+            if (++count % batchSize == 0) {
+                flushAndDetach(batch);
+            }
+        }
+        flushAndDetach(batch);
+        return count;
+    }
+
+    private void flushAndDetach(List<Member> batch) {
+        em.flush(); // 모아둔 insert를 batch로 날리고
+        batch.forEach(em::detach); // 저장한 회원만 빼서 메모리가 일정하게 유지되도록
+        batch.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachMember(int fetchSize, Consumer<Member> action) {
+        Session session = em.unwrap(Session.class);
+        long count = 0;
+        try (ScrollableResults<Member> results = session
+                .createSelectionQuery("select m from Member m order by m.id", Member.class)
+                .setReadOnly(true) // 스냅샷 안 만듦
+                .setFetchSize(fetchSize) // 드라이버가 fetchSize 만큼씩만 가져옴
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Member member = results.get();
+                action.accept(member);
+                session.detach(member); // 처리 끝난 엔티티는 바로 영속성 컨텍스트에서 제거
+                count++;
+            }
+        }
+        return count;
+    }
 }
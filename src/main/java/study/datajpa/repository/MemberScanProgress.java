@@ -0,0 +1,28 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/** MemberPartitionScanner 진행 상황 - 청크가 커밋될 때마다 새로 만들어서 넘겨줌 **/
+@Getter
+@ToString
+public class MemberScanProgress {
+
+    private final String job;
+    private final long totalChunks;
+    private final long skippedChunks; // 이전 실행에서 이미 커밋된 청크
+    private final long completedChunks; // 이번 실행에서 커밋한 청크
+    private final long members;
+
+    public MemberScanProgress(String job, long totalChunks, long skippedChunks, long completedChunks, long members) {
+        this.job = job;
+        this.totalChunks = totalChunks;
+        this.skippedChunks = skippedChunks;
+        this.completedChunks = completedChunks;
+        this.members = members;
+    }
+
+    public double getRatio() {
+        return totalChunks == 0 ? 1.0 : (double) (skippedChunks + completedChunks) / totalChunks;
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/** MemberPartitionScanner 결과 - 이번 실행에서 처리한 청크/회원 수 (건너뛴 청크는 따로) **/
+@Getter
+@ToString
+public class MemberScanResult {
+
+    private final String job;
+    private final long chunks;
+    private final long skippedChunks;
+    private final long members;
+    private final Duration elapsed;
+
+    public MemberScanResult(String job, long chunks, long skippedChunks, long members, Duration elapsed) {
+        this.job = job;
+        this.chunks = chunks;
+        this.skippedChunks = skippedChunks;
+        this.members = members;
+        this.elapsed = elapsed;
+    }
+}
@@ -0,0 +1,116 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 조건 조합(모양)마다 JPQL 하나 - 값은 문자열에 넣지 않고 파라미터로만 바인딩
+ * - 필터 4개라 모양은 최대 16개, JPQL은 클래스 로딩 때 다 만들어 둠
+ * - 같은 모양은 같은 문자열이라 Hibernate 쿼리 해석(HQL -> SQL) 캐시를 그대로 탐
+ * Criteria 는 호출마다 트리를 새로 만들고 Hibernate 6.4 해석 캐시에도 안 들어가서 모양별 JPQL로 만듦
+ */
+final class MemberSearchQuery {
+
+    enum Filter {
+        USERNAME("m.username = :username", MemberSearchCondition::getUsername),
+        TEAM_NAME("t.name = :teamName", MemberSearchCondition::getTeamName),
+        AGE_GOE("m.age >= :ageGoe", MemberSearchCondition::getAgeGoe),
+        AGE_LOE("m.age <= :ageLoe", MemberSearchCondition::getAgeLoe);
+
+        private final String predicate;
+        private final Function<MemberSearchCondition, Object> value;
+
+        Filter(String predicate, Function<MemberSearchCondition, Object> value) {
+            this.predicate = predicate;
+            this.value = value;
+        }
+
+        String parameter() {
+            return predicate.substring(predicate.indexOf(':') + 1);
+        }
+    }
+
+    // left join fetch 라서 팀 이름 조건이 있으면 내부 조인처럼 동작하고, 없으면 팀 없는 회원도 나옴
+    private static final String SELECT = "select m from Member m left join fetch m.team t";
+    private static final String ORDER_BY = " order by m.id";
+    private static final String[] JPQL = new String[1 << Filter.values().length];
+
+    static {
+        for (int shape = 0; shape < JPQL.length; shape++) {
+            JPQL[shape] = render(shape);
+        }
+    }
+
+    private final int shape;
+    private final Object[] values; // Filter.ordinal() 자리에 바인딩할 값
+
+    private MemberSearchQuery(int shape, Object[] values) {
+        this.shape = shape;
+        this.values = values;
+    }
+
+    /** 조건을 정규화해서 모양을 정함 - 범위가 비어있으면(ageGoe > ageLoe) null, 쿼리 날릴 필요 없음 **/
+    static MemberSearchQuery of(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = new MemberSearchCondition(
+                text(condition.getUsername()),
+                text(condition.getTeamName()),
+                condition.getAgeGoe() == null || condition.getAgeGoe() <= 0 ? null : condition.getAgeGoe(), // 나이는 0 이상이라 조건 아님
+                condition.getAgeLoe());
+        if (normalized.getAgeGoe() != null && normalized.getAgeLoe() != null
+                && normalized.getAgeGoe() > normalized.getAgeLoe()) {
+            return null;
+        }
+        int shape = 0;
+        Object[] values = new Object[Filter.values().length];
+        for (Filter filter : Filter.values()) {
+            Object value = filter.value.apply(normalized);
+            if (value != null) {
+                shape |= 1 << filter.ordinal();
+                values[filter.ordinal()] = value;
+            }
+        }
+        return new MemberSearchQuery(shape, values);
+    }
+
+    static int shapes() {
+        return JPQL.length;
+    }
+
+    static String jpql(int shape) {
+        return JPQL[shape];
+    }
+
+    Set<Filter> filters() {
+        return Arrays.stream(Filter.values())
+                .filter(filter -> (shape & 1 << filter.ordinal()) != 0)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(Filter.class)));
+    }
+
+    TypedQuery<Member> create(EntityManager em) {
+        TypedQuery<Member> query = em.createQuery(JPQL[shape], Member.class);
+        for (Filter filter : filters()) {
+            query.setParameter(filter.parameter(), values[filter.ordinal()]);
+        }
+        return query;
+    }
+
+    private static String render(int shape) {
+        String where = Arrays.stream(Filter.values())
+                .filter(filter -> (shape & 1 << filter.ordinal()) != 0)
+                .map(filter -> filter.predicate)
+                .collect(Collectors.joining(" and "));
+        return SELECT + (where.isEmpty() ? "" : " where " + where) + ORDER_BY;
+    }
+
+    private static String text(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
@@ -0,0 +1,9 @@
+package study.datajpa.repository;
+
+/** TeamRepository.findTopMembersByTeamIds 한 행 - 팀 id + 회원 + 그 팀 전체 회원 수 **/
+public interface TeamMemberProjection {
+    Long getTeamId();
+    Long getId();
+    String getUsername();
+    Long getMemberCount();
+}
@@ -1,9 +1,36 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import study.datajpa.dto.TeamDto;
 import study.datajpa.entity.Team;
 
+import java.util.Collection;
+import java.util.List;
+
 //@Repository 스프링 컴포넌트 스캔을 통해 알아서 인식 하기 때문에 생략 가능함!
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    /** 팀 목록 페이징 - Team.members 를 패치 조인하면 페이징을 메모리에서 함 (HHH000104) -> 팀만 페이징 **/
+    @Query(value = "select new study.datajpa.dto.TeamDto(t.id, t.name) from Team t",
+            countQuery = "select count(t) from Team t")
+    Page<TeamDto> findTeamDtoBy(Pageable pageable);
+
+    /** 페이지에 나온 팀들의 회원을 쿼리 한 번으로 - 팀마다 member_id 순으로 최대 :limit 명 + 팀 전체 회원 수 **/
+    // 윈도우 함수로 팀별로 자르기 때문에 팀 하나에 회원이 아무리 많아도 가져오는 행은 (팀 수 * limit) 이하
+    String TOP_MEMBERS_SQL = "select ranked.team_id as teamId, ranked.member_id as id, ranked.username, " +
+            "ranked.member_count as memberCount from (" +
+            "select m.team_id, m.member_id, m.username, " +
+            "row_number() over (partition by m.team_id order by m.member_id) as rn, " +
+            "count(*) over (partition by m.team_id) as member_count " +
+            "from member m where m.team_id in (:teamIds)) ranked " +
+            "where ranked.rn <= :limit order by ranked.team_id, ranked.rn";
+
+    @Query(value = TOP_MEMBERS_SQL, nativeQuery = true)
+    List<TeamMemberProjection> findTopMembersByTeamIds(@Param("teamIds") Collection<Long> teamIds,
+                                                       @Param("limit") int limit);
 }
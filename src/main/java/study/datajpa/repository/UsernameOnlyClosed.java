@@ -0,0 +1,7 @@
+package study.datajpa.repository;
+
+// Closed Projections - 프로젝션에 있는 프로퍼티(username)만 select 해서 프록시에 담음
+public interface UsernameOnlyClosed {
+
+    String getUsername();
+}
@@ -0,0 +1,164 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Page 응답의 전체 개수(count 쿼리 결과)를 (쿼리 모양, 검색 조건)마다 잠깐 들고 있음
+ * - refreshAfter 이내 : 캐시 값 그대로 (hit)
+ * - refreshAfter ~ maxStaleness : 캐시 값을 주고 백그라운드에서 다시 셈 (stale) - 같은 키는 한 번에 하나만
+ * - maxStaleness 넘음 / 없음 : 요청 스레드에서 바로 셈 (miss) -> 어떤 값도 maxStaleness 보다 오래되지 않음
+ * count 는 읽기 전용 트랜잭션이라 datajpa.routing 을 켜면 복제본에서 셈
+ */
+@Slf4j
+public class ApproximateCountCache implements DisposableBean {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final TransactionTemplate readOnly;
+    private final ExecutorService refresher;
+    private final Duration refreshAfter;
+    private final Duration maxStaleness;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter refreshFailures;
+
+    public ApproximateCountCache(PlatformTransactionManager transactionManager, Duration refreshAfter, Duration maxStaleness,
+                                 int maxEntries, int refreshThreads, MeterRegistry meterRegistry, Clock clock) {
+        Assert.isTrue(refreshAfter.compareTo(maxStaleness) <= 0, "refreshAfter must not exceed maxStaleness");
+        Assert.isTrue(maxEntries > 0, "maxEntries must be positive");
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        // 큐가 차면 이번 갱신은 건너뜀 (maxStaleness 가 지나면 요청 스레드에서 셈)
+        this.refresher = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxEntries), Thread.ofPlatform().name("count-cache-refresh-", 0).daemon(true).factory());
+        this.refreshAfter = refreshAfter;
+        this.maxStaleness = maxStaleness;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.hits = requests(meterRegistry, "hit");
+        this.staleHits = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        this.refreshFailures = Counter.builder("datajpa.count.cache.refresh.failures").register(meterRegistry);
+        Gauge.builder("datajpa.count.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /** shape 는 count 쿼리 이름, filter 는 검색 조건 (equals/hashCode 필요, 없으면 null) **/
+    public long count(String shape, Object filter, LongSupplier exactCount) {
+        Key key = new Key(shape, filter);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            Duration age = Duration.between(entry.getLoadedAt(), clock.instant());
+            if (age.compareTo(refreshAfter) < 0) {
+                hits.increment();
+                return entry.getCount();
+            }
+            if (age.compareTo(maxStaleness) < 0) {
+                staleHits.increment();
+                refreshAsync(key, exactCount);
+                return entry.getCount();
+            }
+        }
+        misses.increment();
+        return load(key, exactCount);
+    }
+
+    /** 벌크 연산처럼 개수가 크게 바뀐 뒤 - 다음 요청은 바로 다시 셈 **/
+    public void invalidate(String shape) {
+        entries.keySet().removeIf(key -> key.getShape().equals(shape));
+    }
+
+    /** 트랜잭션 안이면 커밋된 뒤에 (롤백되면 그대로), 밖이면 바로 - 커밋 전에 지우면 다른 요청이 바뀌기 전 개수를 다시 채움 **/
+    public void invalidateAfterCommit(String shape) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(shape);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(shape);
+            }
+        });
+    }
+
+    private long load(Key key, LongSupplier exactCount) {
+        long count = readOnly.execute(status -> exactCount.getAsLong());
+        entries.put(key, new Entry(count, clock.instant()));
+        if (entries.size() > maxEntries) { // 가장 오래된 것부터
+            entries.entrySet().stream()
+                    .min(Comparator.comparing(e -> e.getValue().getLoadedAt()))
+                    .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+        }
+        return count;
+    }
+
+    private void refreshAsync(Key key, LongSupplier exactCount) {
+        if (!refreshing.add(key)) {
+            return; // 이미 다시 세는 중
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(key, exactCount);
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    log.warn("Count refresh failed for {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("datajpa.count.cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Value
+    private static class Key {
+        String shape;
+        Object filter;
+    }
+
+    @Value
+    private static class Entry {
+        long count;
+        Instant loadedAt;
+    }
+}
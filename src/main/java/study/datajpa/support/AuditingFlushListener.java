@@ -0,0 +1,30 @@
+package study.datajpa.support;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+
+/**
+ * flush(명시적 flush, 커밋, 쿼리 전 자동 flush)가 끝나면 감사 시각을 새로 읽게 함
+ * - 기본 flush 리스너 뒤에 붙어서 @PreUpdate 까지 끝난 다음에 불림
+ * - 자동 flush 는 실제로 flush 했을 때만 (isFlushRequired)
+ */
+@RequiredArgsConstructor
+public class AuditingFlushListener implements FlushEventListener, AutoFlushEventListener {
+
+    private final FlushScopedDateTimeProvider dateTimeProvider;
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        dateTimeProvider.flushed();
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        if (event.isFlushRequired()) {
+            dateTimeProvider.flushed();
+        }
+    }
+}
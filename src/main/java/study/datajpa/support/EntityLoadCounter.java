@@ -0,0 +1,22 @@
+package study.datajpa.support;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * 현재 스레드에서 로딩된 엔티티 수 (DB 든 2차 캐시든 PostLoad 이벤트마다 +1)
+ * 누적값이라 SqlStatementCounter.executed() 처럼 호출 전후 차이로 씀
+ */
+public class EntityLoadCounter implements PostLoadEventListener {
+
+    private static final ThreadLocal<long[]> LOADED = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long loaded() {
+        return LOADED.get()[0];
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        LOADED.get()[0]++;
+    }
+}
@@ -0,0 +1,343 @@
+package study.datajpa.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.metamodel.model.domain.EntityDomainType;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.delete.SqmDeleteStatement;
+import org.hibernate.query.sqm.tree.domain.SqmPath;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.from.SqmFrom;
+import org.hibernate.query.sqm.tree.predicate.SqmBetweenPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmComparisonPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmGroupedPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmInListPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmJunctionPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmLikePredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmNullnessPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.hibernate.query.sqm.tree.select.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.update.SqmUpdateStatement;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 애플리케이션 시작 시 리포지토리 조회 조건 컬럼으로 시작하는 인덱스가 있는지 검사
+ * - 메소드 이름 쿼리(findByXxx)와 JPQL @Query 는 where 절을 Or 로 나뉜 묶음마다 봄 -> 묶음 안의 어떤 컬럼도 인덱스 첫 컬럼이 아니면 경고 로그
+ * - 중첩 프로퍼티(team.name)는 그 엔티티 테이블(team.name) 컬럼으로 봄, team.id 만 FK 컬럼(team_id)
+ * - 검사 못 하는 것은 unchecked 로 따로 보고 : 네이티브 쿼리, 커스텀 구현 메소드, Spring Data 가 아닌 @Repository (EntityManager 직접 사용)
+ *   -> 이쪽 JPQL 은 checkJpql() 로 직접 넘겨서 검사
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "datajpa.schema", name = "check-finder-indexes", havingValue = "true", matchIfMissing = true)
+public class FinderIndexChecker {
+
+    private final ApplicationContext applicationContext;
+    private final EntityManagerFactory emf;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        Report report = check();
+        report.getUnindexed().forEach(finder -> log.warn("Finder query has no supporting index: {}", finder));
+        if (!report.getUnchecked().isEmpty()) {
+            log.info("Finder index check skipped (not derivable from a method name or JPQL): {}", report.getUnchecked());
+        }
+    }
+
+    /** 모든 Spring Data 리포지토리의 메소드 이름 쿼리 + JPQL @Query 검사 **/
+    public Report check() {
+        Repositories repositories = new Repositories(applicationContext);
+        Map<String, Set<String>> indexes = new HashMap<>();
+        List<String> unindexed = new ArrayList<>();
+        List<String> unchecked = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            String entityName = domainType.getSimpleName();
+            List<String> methodNames = new ArrayList<>();
+            for (Method method : information.getQueryMethods()) {
+                Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+                if (query == null) {
+                    methodNames.add(method.getName());
+                } else if (query.nativeQuery()) {
+                    unchecked.add(entityName + "." + method.getName() + " (native query)");
+                } else {
+                    unindexed.addAll(checkJpql(entityName + "." + method.getName(), query.value(), indexes));
+                }
+            }
+            for (Method method : information.getRepositoryInterface().getMethods()) {
+                if (information.isCustomMethod(method)) {
+                    unchecked.add(entityName + "." + method.getName() + " (custom implementation)");
+                }
+            }
+            unindexed.addAll(check(domainType, methodNames, indexes));
+        }
+        applicationContext.getBeansWithAnnotation(Repository.class).values().stream()
+                .filter(bean -> !(bean instanceof org.springframework.data.repository.Repository<?, ?>))
+                .map(bean -> AopUtils.getTargetClass(bean).getSimpleName() + " (EntityManager queries)")
+                .forEach(unchecked::add);
+        return new Report(unindexed, unchecked.stream().distinct().sorted().toList());
+    }
+
+    /** 인덱스를 못 타는 메소드를 "Entity.method[column]" 형태로 반환 (다른 테이블 컬럼은 table.column) **/
+    public List<String> check(Class<?> domainType, Collection<String> methodNames) {
+        return check(domainType, methodNames, new HashMap<>());
+    }
+
+    /** 메소드 이름 대신 JPQL 로 - 인덱스를 못 타면 "name[column]" (Or 묶음마다 하나) **/
+    public List<String> checkJpql(String name, String jpql) {
+        return checkJpql(name, jpql, new HashMap<>());
+    }
+
+    private List<String> check(Class<?> domainType, Collection<String> methodNames, Map<String, Set<String>> indexes) {
+        String rootTable = persister(domainType).getTableName().toLowerCase(Locale.ROOT);
+        List<String> unindexed = new ArrayList<>();
+        for (String methodName : methodNames) {
+            PartTree tree;
+            try {
+                tree = new PartTree(methodName, domainType);
+            } catch (RuntimeException e) {
+                continue; // 메소드 이름 쿼리가 아님 (커스텀 구현 등)
+            }
+            for (PartTree.OrPart orPart : tree) {
+                List<Column> columns = new ArrayList<>();
+                for (Part part : orPart) {
+                    columns.add(column(domainType, part.getProperty()));
+                }
+                report(domainType.getSimpleName() + "." + methodName, rootTable, columns, indexes, unindexed);
+            }
+        }
+        return unindexed;
+    }
+
+    private List<String> checkJpql(String name, String jpql, Map<String, Set<String>> indexes) {
+        SqmStatement<?> statement = emf.unwrap(SessionFactoryImplementor.class).getQueryEngine()
+                .getHqlTranslator()
+                .translate(jpql, null);
+        SqmPredicate where;
+        String rootTable;
+        if (statement instanceof SqmSelectStatement<?> select) {
+            where = select.getQuerySpec().getRestriction();
+            rootTable = rootTable(select.getQuerySpec().getFromClause().getRoots().get(0));
+        } else if (statement instanceof SqmUpdateStatement<?> update) {
+            where = update.getWhereClause() == null ? null : update.getWhereClause().getPredicate();
+            rootTable = rootTable(update.getTarget());
+        } else if (statement instanceof SqmDeleteStatement<?> delete) {
+            where = delete.getWhereClause() == null ? null : delete.getWhereClause().getPredicate();
+            rootTable = rootTable(delete.getTarget());
+        } else {
+            return List.of(); // insert
+        }
+
+        List<String> unindexed = new ArrayList<>();
+        if (where != null) {
+            for (List<Column> columns : orGroups(where)) {
+                report(name, rootTable, columns, indexes, unindexed);
+            }
+        }
+        return unindexed;
+    }
+
+    private void report(String name, String rootTable, List<Column> columns,
+                        Map<String, Set<String>> indexes, List<String> unindexed) {
+        if (columns.isEmpty()) {
+            return;
+        }
+        boolean indexed = columns.stream()
+                .anyMatch(column -> indexes.computeIfAbsent(column.getTable(), this::leadingIndexColumns).contains(column.getName()));
+        if (!indexed) {
+            unindexed.add(name + columns.stream().map(column -> column.label(rootTable)).toList());
+        }
+    }
+
+    /** where 절을 Or 로 나뉜 묶음(And 로 묶인 컬럼들)으로 펼침 - a and (b or c) -> [a, b], [a, c] **/
+    private List<List<Column>> orGroups(SqmPredicate predicate) {
+        if (predicate instanceof SqmGroupedPredicate grouped) {
+            return orGroups(grouped.getSubPredicate());
+        }
+        if (predicate instanceof SqmJunctionPredicate junction) {
+            List<List<Column>> groups = new ArrayList<>();
+            if (junction.getOperator() == Predicate.BooleanOperator.OR) {
+                junction.getPredicates().forEach(child -> groups.addAll(orGroups(child)));
+                return groups;
+            }
+            groups.add(new ArrayList<>());
+            for (SqmPredicate child : junction.getPredicates()) {
+                List<List<Column>> combined = new ArrayList<>();
+                for (List<Column> left : groups) {
+                    for (List<Column> right : orGroups(child)) {
+                        List<Column> group = new ArrayList<>(left);
+                        group.addAll(right);
+                        combined.add(group);
+                    }
+                }
+                groups.clear();
+                groups.addAll(combined);
+            }
+            return groups;
+        }
+        List<Column> columns = new ArrayList<>();
+        for (SqmExpression<?> expression : operands(predicate)) {
+            if (expression instanceof SqmPath<?> path && !(path instanceof SqmFrom<?, ?>)) {
+                Column column = column(path);
+                if (column != null) {
+                    columns.add(column);
+                }
+            }
+        }
+        List<List<Column>> groups = new ArrayList<>();
+        groups.add(columns); // 컬럼이 없는 조건(exists, 함수 등)은 빈 묶음 -> 검사 안 함
+        return groups;
+    }
+
+    private static List<SqmExpression<?>> operands(SqmPredicate predicate) {
+        if (predicate instanceof SqmComparisonPredicate comparison) {
+            return List.of(comparison.getLeftHandExpression(), comparison.getRightHandExpression());
+        }
+        if (predicate instanceof SqmInListPredicate<?> in) {
+            return List.of(in.getTestExpression());
+        }
+        if (predicate instanceof SqmBetweenPredicate between) {
+            return List.of(between.getExpression());
+        }
+        if (predicate instanceof SqmLikePredicate like) {
+            return List.of(like.getMatchExpression());
+        }
+        if (predicate instanceof SqmNullnessPredicate nullness) {
+            return List.of(nullness.getExpression());
+        }
+        return List.of();
+    }
+
+    /** JPQL 경로 m.username / t.name / m.team.id -> 실제 테이블 컬럼 (엔티티 속성이 아니면 null) **/
+    private Column column(SqmPath<?> path) {
+        SqmPath<?> lhs = path.getLhs();
+        if (lhs == null || !(lhs.getReferencedPathSource().getSqmPathType() instanceof EntityDomainType<?> owner)) {
+            return null;
+        }
+        AbstractEntityPersister persister = persister(owner.getHibernateEntityName());
+        String property = path.getReferencedPathSource().getPathName();
+        SqmPath<?> ownerOfLhs = lhs.getLhs();
+        if (property.equals(persister.getIdentifierPropertyName()) && !(lhs instanceof SqmFrom<?, ?>)
+                && ownerOfLhs != null && ownerOfLhs.getReferencedPathSource().getSqmPathType() instanceof EntityDomainType<?> fkOwner) {
+            return column(persister(fkOwner.getHibernateEntityName()), lhs.getReferencedPathSource().getPathName()); // m.team.id -> member.team_id
+        }
+        return column(persister, property);
+    }
+
+    /** 메소드 이름 경로 username / team / teamName(team.name) -> 실제 테이블 컬럼 **/
+    private Column column(Class<?> domainType, PropertyPath property) {
+        Class<?> owner = domainType;
+        Class<?> parentOwner = null;
+        PropertyPath parent = null;
+        while (property.hasNext()) {
+            parentOwner = owner;
+            parent = property;
+            owner = property.getType();
+            property = property.next();
+        }
+        AbstractEntityPersister persister = persister(owner);
+        if (parent != null && property.getSegment().equals(persister.getIdentifierPropertyName())) {
+            return column(persister(parentOwner), parent.getSegment()); // team.id -> member.team_id
+        }
+        return column(persister, property.getSegment());
+    }
+
+    private static Column column(AbstractEntityPersister persister, String property) {
+        String[] columns = property.equals(persister.getIdentifierPropertyName())
+                ? persister.getIdentifierColumnNames()
+                : persister.getPropertyColumnNames(property); // 연관관계(team)는 FK 컬럼(team_id)
+        return new Column(persister.getTableName().toLowerCase(Locale.ROOT), columns[0].toLowerCase(Locale.ROOT));
+    }
+
+    private String rootTable(SqmFrom<?, ?> root) {
+        EntityDomainType<?> entity = (EntityDomainType<?>) root.getReferencedPathSource().getSqmPathType();
+        return persister(entity.getHibernateEntityName()).getTableName().toLowerCase(Locale.ROOT);
+    }
+
+    private AbstractEntityPersister persister(Class<?> domainType) {
+        return (AbstractEntityPersister) metamodel().getEntityDescriptor(domainType);
+    }
+
+    private AbstractEntityPersister persister(String entityName) {
+        return (AbstractEntityPersister) metamodel().getEntityDescriptor(entityName);
+    }
+
+    private MappingMetamodel metamodel() {
+        return emf.unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+    }
+
+    private Set<String> leadingIndexColumns(String table) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            Set<String> columns = new HashSet<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, true)) {
+                while (rs.next()) {
+                    if (rs.getShort("ORDINAL_POSITION") == 1 && rs.getString("COLUMN_NAME") != null) {
+                        columns.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columns;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read indexes of " + table, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /** unindexed : 인덱스 없는 조건, unchecked : 이 검사로는 볼 수 없는 쿼리 (직접 확인 필요) **/
+    @Value
+    public static class Report {
+        List<String> unindexed;
+        List<String> unchecked;
+    }
+
+    @Value
+    private static class Column {
+        String table;
+        String name;
+
+        String label(String rootTable) {
+            return table.equals(rootTable) ? name : table + "." + name;
+        }
+    }
+}
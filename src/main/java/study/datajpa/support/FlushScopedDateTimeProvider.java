@@ -0,0 +1,35 @@
+package study.datajpa.support;
+
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * 등록일/수정일 시각을 flush 하나에 한 번만 읽음 (Spring Data 기본 CurrentDateTimeProvider 는 엔티티마다 LocalDateTime.now())
+ * - 값은 트랜잭션 리소스(TransactionScopedValue)에 들고 있다가 flush 가 끝나면(AuditingFlushListener) 비워서 다음 flush 에 나갈 쓰기는 새로 읽음
+ *   (트랜잭션 동기화가 없으면 매번 새로 읽음)
+ * - 같은 flush 로 나가는 엔티티는 모두 같은 시각 -> 한 번에 저장한 데이터끼리 시각이 어긋나지 않음
+ *   (@PrePersist 는 persist() 할 때 불리므로 "다음 flush 로 나갈 쓰기" 기준)
+ * - Clock 을 주입받으므로 테스트에서는 Clock.fixed 등으로 교체 가능
+ */
+public class FlushScopedDateTimeProvider implements DateTimeProvider {
+
+    private final TransactionScopedValue<Optional<TemporalAccessor>> perFlush;
+
+    public FlushScopedDateTimeProvider(Clock clock) {
+        this.perFlush = new TransactionScopedValue<>(() -> Optional.of(LocalDateTime.now(clock)));
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return perFlush.get();
+    }
+
+    /** flush 가 끝났음 - 이 트랜잭션의 다음 쓰기는 새 시각 **/
+    public void flushed() {
+        perFlush.reset();
+    }
+}
@@ -0,0 +1,100 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * 낙관적 락(@Version) 충돌이 나면 트랜잭션을 새로 열어서 action 을 처음부터 다시 실행
+ * - 시도마다 새 영속성 컨텍스트 -> 다시 조회하니 최신 version 으로 수정함 (action 안에서 조회부터 해야 함)
+ * - 대기는 지수 백오프 + full jitter: 같이 충돌한 트랜잭션끼리 같은 시각에 다시 부딪히지 않게 흩어줌
+ * - 이미 트랜잭션 안이면 재시도해도 같은 영속성 컨텍스트라 의미가 없어서 막음
+ */
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, int maxAttempts,
+                                   Duration initialBackoff, Duration maxBackoff, MeterRegistry meterRegistry) {
+        Assert.isTrue(maxAttempts > 0, "maxAttempts must be positive");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retries = Counter.builder("datajpa.optimistic.retry")
+                .tag("result", "retried")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("datajpa.optimistic.retry")
+                .tag("result", "exhausted")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "OptimisticRetryExecutor must start its own transaction - call it outside @Transactional");
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                if (!sleep(backoffNanos(attempt))) {
+                    throw e; // 인터럽트 - 플래그는 살려둔 채로 포기
+                }
+            }
+        }
+    }
+
+    public void executeWithoutResult(Consumer<TransactionStatus> action) {
+        execute(status -> {
+            action.accept(status);
+            return null;
+        });
+    }
+
+    long backoffNanos(int attempt) {
+        long ceiling = initialBackoffNanos << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffNanos) {
+            ceiling = maxBackoffNanos;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    // 커밋 시점 flush 는 JpaTransactionManager 가 ObjectOptimisticLockingFailureException 으로 바꿔주지만
+    // action 안에서 em.flush() 를 직접 부르면 JPA 예외가 그대로 올라옴
+    private static boolean isConflict(RuntimeException e) {
+        return e instanceof OptimisticLockingFailureException || e instanceof OptimisticLockException;
+    }
+
+    private static boolean sleep(long nanos) {
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
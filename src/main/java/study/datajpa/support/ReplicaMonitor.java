@@ -0,0 +1,50 @@
+package study.datajpa.support;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션이 떠 있는 동안 interval 마다 복제본 지연을 재고, 종료할 때 커넥션 풀을 닫음
+ * (ReplicaRoutingDataSource 는 LazyConnectionDataSourceProxy 안쪽이라 빈이 아님)
+ */
+public class ReplicaMonitor implements SmartLifecycle, DisposableBean {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaMonitor(ReplicaRoutingDataSource routingDataSource, Duration interval) {
+        this.routingDataSource = routingDataSource;
+        this.interval = interval;
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-monitor")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(routingDataSource::checkLag, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        routingDataSource.close();
+    }
+}
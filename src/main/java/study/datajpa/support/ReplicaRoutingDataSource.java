@@ -0,0 +1,164 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true), 리포지토리 조회 메소드)은 복제본으로, 나머지는 primary 로
+ * - 복제본은 라운드 로빈, 지연(lagQuery)이 maxLag 를 넘거나 접속이 안 되는 복제본은 건너뜀 -> 다 안 되면 primary (fallback)
+ * - 커넥션을 얻는 시점에 결정하므로 LazyConnectionDataSourceProxy 로 감싸야 함
+ *   (트랜잭션 시작할 때가 아니라 첫 SQL 실행할 때 커넥션을 얻음 -> 그때는 readOnly 여부가 정해져 있음)
+ * - 커넥션을 얻을 때 한 번만 결정 -> 트랜잭션이 끝나면 커넥션을 돌려줘야 다음 트랜잭션이 다시 라우팅됨
+ *   (ReadReplicaConfig 가 hibernate.connection.handling_mode 를 ..._RELEASE_AFTER_TRANSACTION 으로 바꿈 - open-in-view 대비)
+ * - 메트릭 : datajpa.datasource.route{route, type=write|read|fallback}, datajpa.datasource.replica.lag{replica} (ms, 접속 불가 -1)
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryWrites;
+    private final Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                    String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLag.toMillis();
+        this.primaryWrites = routeCounter(meterRegistry, PRIMARY, "write");
+        this.primaryFallbacks = routeCounter(meterRegistry, PRIMARY, "fallback");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, routeCounter(meterRegistry, name, "read"));
+            Gauge.builder("datajpa.datasource.replica.lag", replica, Replica::lagOrUnavailable)
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            replicas.add(replica);
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route, String type) {
+        return Counter.builder("datajpa.datasource.route")
+                .tag("route", route)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.usable(maxLagMillis)) {
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        primaryFallbacks.increment();
+        return PRIMARY;
+    }
+
+    /** 복제본마다 지연을 다시 잼 (ReplicaMonitor 가 주기적으로 호출) **/
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.lagMillis = lagQuery == null ? 0 : queryLag(connection);
+                if (!replica.available) {
+                    log.info("replica {} is available again (lag {}ms)", replica.name, replica.lagMillis);
+                }
+                replica.available = true;
+            } catch (SQLException e) {
+                if (replica.available) {
+                    log.warn("replica {} is unavailable, routing its reads elsewhere: {}", replica.name, e.getMessage());
+                }
+                replica.available = false;
+            }
+        }
+    }
+
+    private long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /** 복제본 이름 -> 현재 지연(ms), 접속 불가면 -1 **/
+    public Map<String, Long> replicaLags() {
+        Map<String, Long> lags = new LinkedHashMap<>();
+        replicas.forEach(replica -> lags.put(replica.name, (long) replica.lagOrUnavailable()));
+        return lags;
+    }
+
+    /** primary + 복제본 커넥션 풀 종료 **/
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            closeIfPossible(replica.dataSource);
+        }
+        closeIfPossible(primary);
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static class Replica {
+        final String name;
+        final DataSource dataSource;
+        final Counter reads;
+        volatile long lagMillis;
+        volatile boolean available = true;
+
+        Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+
+        boolean usable(long maxLagMillis) {
+            return available && lagMillis <= maxLagMillis;
+        }
+
+        double lagOrUnavailable() {
+            return available ? lagMillis : -1;
+        }
+    }
+}
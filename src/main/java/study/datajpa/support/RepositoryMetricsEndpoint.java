@@ -0,0 +1,84 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /actuator/repositories - 레포지토리 메소드별 호출 수, 에러 수, 시간(평균/최대/퍼센타일 ms), 호출당 평균 행/SQL/엔티티 수
+ * 원본 값은 /actuator/metrics/datajpa.repository?tag=repository:MemberRepository 등
+ */
+@Endpoint(id = "repositories")
+@RequiredArgsConstructor
+public class RepositoryMetricsEndpoint {
+
+    private final MeterRegistry registry;
+
+    @ReadOperation
+    public SortedMap<String, MethodStats> repositories() {
+        SortedMap<String, MethodStats> result = new TreeMap<>();
+        for (Timer timer : registry.find(RepositoryMetricsInterceptor.METRIC).timers()) {
+            String repository = timer.getId().getTag("repository");
+            String method = timer.getId().getTag("method");
+            MethodStats stats = result.computeIfAbsent(repository + "." + method, key -> new MethodStats(
+                    mean(RepositoryMetricsInterceptor.METRIC + ".rows", repository, method),
+                    mean(RepositoryMetricsInterceptor.METRIC + ".statements", repository, method),
+                    mean(RepositoryMetricsInterceptor.METRIC + ".entities", repository, method)));
+            stats.add(timer);
+        }
+        return result;
+    }
+
+    private double mean(String name, String repository, String method) {
+        DistributionSummary summary = registry.find(name)
+                .tag("repository", repository)
+                .tag("method", method)
+                .summary();
+        return summary == null ? Double.NaN : summary.mean();
+    }
+
+    @Getter
+    public static class MethodStats {
+        private long calls;
+        private long errors;
+        private double meanMillis;
+        private double maxMillis;
+        private final Map<String, Double> percentileMillis = new LinkedHashMap<>();
+        private final double rowsPerCall;
+        private final double statementsPerCall;
+        private final double entitiesPerCall;
+
+        MethodStats(double rowsPerCall, double statementsPerCall, double entitiesPerCall) {
+            this.rowsPerCall = rowsPerCall;
+            this.statementsPerCall = statementsPerCall;
+            this.entitiesPerCall = entitiesPerCall;
+        }
+
+        // 에러 태그별로 타이머가 나뉘어 있어서 합침 - 퍼센타일은 정상 호출 기준
+        void add(Timer timer) {
+            long count = timer.count();
+            double total = meanMillis * calls + timer.totalTime(TimeUnit.MILLISECONDS);
+            calls += count;
+            meanMillis = calls == 0 ? 0 : total / calls;
+            maxMillis = Math.max(maxMillis, timer.max(TimeUnit.MILLISECONDS));
+            if (!"none".equals(timer.getId().getTag("error"))) {
+                errors += count;
+                return;
+            }
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                percentileMillis.put("p" + percentile.percentile(), percentile.value(TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * 레포지토리 메소드 호출마다 Observation (타이머 + 트레이싱 span) 과 호출 하나당 분포를 기록
+ * - datajpa.repository{repository, method, error}          : 실행 시간 (퍼센타일은 management.metrics.distribution)
+ * - datajpa.repository.rows{repository, method}            : 반환한 행 수 (컬렉션/Page/Slice/Window 크기, 단건 0 or 1)
+ * - datajpa.repository.statements{repository, method}      : 실행된 SQL 수 (SqlStatementCounter)
+ * - datajpa.repository.entities{repository, method}        : 로딩된 엔티티 수 (EntityLoadCounter)
+ * Stream, 숫자(count, 벌크 update 건수), void 는 행 수를 모르니 rows 를 기록하지 않음
+ * 레포지토리 안에서 다른 레포지토리를 부르면 SQL/엔티티는 양쪽에 다 집계됨
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    public static final String METRIC = "datajpa.repository";
+
+    private final String repository; // null 이면 대상 클래스 이름 (직접 만든 @Repository 클래스)
+    private final Supplier<ObservationRegistry> observationRegistry;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(String repository, Supplier<ObservationRegistry> observationRegistry,
+                                        Supplier<MeterRegistry> meterRegistry) {
+        this.repository = repository;
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @SuppressWarnings("try") // scope 는 열어두기만 함 - observeChecked 를 쓰면 stop() 전에 statements/entities/rows 를 못 붙임
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Meters meters = this.meters.computeIfAbsent(method, key -> new Meters(repositoryName(invocation), key));
+
+        long statementsBefore = SqlStatementCounter.executed();
+        long entitiesBefore = EntityLoadCounter.loaded();
+        Observation observation = Observation.createNotStarted(METRIC, observationRegistry.get())
+                .lowCardinalityKeyValue("repository", meters.repository)
+                .lowCardinalityKeyValue("method", meters.method)
+                .start();
+        Object result = null;
+        try (Observation.Scope scope = observation.openScope()) {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            long statements = SqlStatementCounter.executed() - statementsBefore;
+            long entities = EntityLoadCounter.loaded() - entitiesBefore;
+            long rows = rows(method, result);
+            observation.highCardinalityKeyValue("statements", Long.toString(statements))
+                    .highCardinalityKeyValue("entities", Long.toString(entities));
+            if (rows >= 0) {
+                observation.highCardinalityKeyValue("rows", Long.toString(rows));
+                meters.rows.record(rows);
+            }
+            observation.stop();
+            meters.statements.record(statements);
+            meters.entities.record(entities);
+        }
+    }
+
+    private String repositoryName(MethodInvocation invocation) {
+        if (repository != null) {
+            return repository;
+        }
+        return ClassUtils.getUserClass(AopUtils.getTargetClass(invocation.getThis())).getSimpleName();
+    }
+
+    /** 모르면 -1 **/
+    static long rows(Method method, Object result) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class || Number.class.isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(returnType))
+                || returnType == boolean.class || returnType == Boolean.class) {
+            return -1;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) { // Page 포함
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+            return -1; // 아직 안 읽음
+        }
+        return 1;
+    }
+
+    private final class Meters {
+        final String repository;
+        final String method;
+        final DistributionSummary rows;
+        final DistributionSummary statements;
+        final DistributionSummary entities;
+
+        Meters(String repository, Method method) {
+            this.repository = repository;
+            this.method = method.getName();
+            MeterRegistry registry = meterRegistry.get();
+            this.rows = summary(registry, METRIC + ".rows");
+            this.statements = summary(registry, METRIC + ".statements");
+            this.entities = summary(registry, METRIC + ".entities");
+        }
+
+        private DistributionSummary summary(MeterRegistry registry, String name) {
+            return DistributionSummary.builder(name)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import study.datajpa.config.SqlMonitoringProperties;
+
+import java.util.Map;
+
+/**
+ * 요청 하나에서 실행된 SQL 개수를 엔드포인트별 메트릭(sql.statements.per.request)으로 남기고
+ * 같은 모양의 SELECT 가 반복되면(N + 1 의심) 경고 로그를 남김
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = SqlStatementBudgetInterceptor.class.getName() + ".scope";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlMonitoringProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(SCOPE_ATTRIBUTE, SqlStatementCounter.start());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 비동기 요청(StreamingResponseBody 등)은 다른 스레드에서 이어서 실행되므로 요청 스레드에서 집계를 마무리함
+        finish(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        finish(request);
+    }
+
+    private void finish(HttpServletRequest request) {
+        Object attribute = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (!(attribute instanceof SqlStatementCounter.Scope scope)) {
+            return;
+        }
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        scope.close();
+
+        String uri = endpointOf(request);
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.total());
+
+        Map<String, Integer> repeated = scope.repeatedSelects(properties.getRepeatedSelectThreshold());
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("sql.n_plus_one.suspected", "method", request.getMethod(), "uri", uri).increment();
+            repeated.forEach((sql, count) ->
+                    log.warn("N+1 suspected on {} {}: same select executed {} times -> {}", request.getMethod(), uri, count, sql));
+        }
+        if (scope.total() > properties.getStatementBudget()) {
+            log.warn("SQL statement budget exceeded on {} {}: {} statements (budget {})",
+                    request.getMethod(), uri, scope.total(), properties.getStatementBudget());
+        }
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN"; // 경로 변수 값마다 태그가 늘어나지 않도록 패턴으로
+    }
+}
@@ -0,0 +1,108 @@
+package study.datajpa.support;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 현재 스레드에서 실행되는 SQL 문 개수를 셈 (Hibernate StatementInspector 가 record 호출)
+ * - 요청마다 SqlStatementBudgetInterceptor 가 scope 를 열고 닫음
+ * - 테스트에서는 직접 scope 를 열어서 쿼리 개수 검증
+ * <pre>
+ * try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+ *     mockMvc.perform(get("/members"));
+ *     assertThat(scope.total()).isLessThanOrEqualTo(2);
+ * }
+ * </pre>
+ * scope 는 중첩 가능하고 열려있는 scope 모두에 집계됨
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<long[]> EXECUTED = ThreadLocal.withInitial(() -> new long[1]);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope start() {
+        Scope scope = new Scope();
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    /** 현재 스레드에서 지금까지 실행된 SQL 개수 (scope 와 상관없이 누적) - 전후 차이로 호출 하나의 개수를 구함 **/
+    public static long executed() {
+        return EXECUTED.get()[0];
+    }
+
+    public static void record(String sql) {
+        EXECUTED.get()[0]++;
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        for (Scope scope : scopes) {
+            scope.record(sql, shape);
+        }
+    }
+
+    /** 파라미터 개수만 다른 IN 절은 같은 모양으로 봄 **/
+    static String shapeOf(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(normalized).replaceAll("(?)");
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+        private final Set<String> statements = new HashSet<>();
+        private int total;
+
+        private Scope() {
+        }
+
+        private void record(String sql, String shape) {
+            counts.merge(shape, 1, Integer::sum);
+            statements.add(sql);
+            total++;
+        }
+
+        public int total() {
+            return total;
+        }
+
+        public Map<String, Integer> counts() {
+            return Collections.unmodifiableMap(counts);
+        }
+
+        /** 서로 다른 SQL 문자열 - IN 절 자리 수가 다르면 다른 문장 (DB/드라이버 statement 캐시 키) **/
+        public Set<String> statements() {
+            return Collections.unmodifiableSet(statements);
+        }
+
+        /** 같은 모양의 SELECT 가 threshold 번 이상 실행됐다면 N + 1 의심 **/
+        public Map<String, Integer> repeatedSelects(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            counts.forEach((shape, count) -> {
+                if (count >= threshold && shape.toLowerCase(Locale.ROOT).startsWith("select")) {
+                    repeated.put(shape, count);
+                }
+            });
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            SCOPES.get().remove(this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/** Hibernate 가 JDBC statement 를 준비할 때마다 호출됨 - SQL 은 건드리지 않고 개수만 셈 **/
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.support;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 등록자/수정자를 요청(없으면 트랜잭션) 하나에 한 번만 구해서 재사용
+ * - AuditingHandler 는 엔티티를 저장/수정할 때마다 getCurrentAuditor() 를 부름 -> resolver 가 비싸면(UUID, 보안 컨텍스트 조회) 쓰기마다 비용
+ * - 같은 요청/트랜잭션에서는 같은 Optional 인스턴스를 돌려주므로 쓰기당 할당 없음
+ */
+public class TransactionScopedAuditorAware implements AuditorAware<String> {
+
+    private static final String REQUEST_ATTRIBUTE = TransactionScopedAuditorAware.class.getName() + ".auditor";
+
+    private final Supplier<String> resolver;
+    private final TransactionScopedValue<Optional<String>> perTransaction;
+
+    public TransactionScopedAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+        this.perTransaction = new TransactionScopedValue<>(this::resolve);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<String> getCurrentAuditor() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return perTransaction.get();
+        }
+        // 한 요청 안에서 트랜잭션이 여러 번 열려도 같은 사람
+        Optional<String> auditor = (Optional<String>) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (auditor == null) {
+            auditor = resolve();
+            request.setAttribute(REQUEST_ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+        }
+        return auditor;
+    }
+
+    private Optional<String> resolve() {
+        return Optional.ofNullable(resolver.get());
+    }
+}
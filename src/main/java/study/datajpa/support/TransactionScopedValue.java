@@ -0,0 +1,62 @@
+package study.datajpa.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 트랜잭션 하나 동안 한 번만 만들어서 재사용하는 값 (TransactionSynchronizationManager 리소스로 바인딩)
+ * - 트랜잭션마다 Holder 하나를 바인딩하고 동기화도 한 번만 등록 -> 트랜잭션이 끝나면(afterCompletion) 바인딩을 풀어서 다음 트랜잭션은 새로 계산
+ * - reset() 은 Holder 의 값만 비움 -> 같은 트랜잭션에서 다음 get() 에 새로 계산 (flush 마다 불러도 동기화가 쌓이지 않음)
+ * - 트랜잭션 동기화가 없으면 매번 loader 호출
+ */
+final class TransactionScopedValue<T> {
+
+    private final Object key = new Object(); // 인스턴스마다 고유한 리소스 키
+    private final Supplier<? extends T> loader;
+
+    TransactionScopedValue(Supplier<? extends T> loader) {
+        this.loader = loader;
+    }
+
+    T get() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return loader.get();
+        }
+        Holder<T> holder = holder();
+        if (holder == null) {
+            holder = new Holder<>();
+            TransactionSynchronizationManager.bindResource(key, holder);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+        }
+        if (!holder.loaded) {
+            holder.value = loader.get();
+            holder.loaded = true;
+        }
+        return holder.value;
+    }
+
+    void reset() {
+        Holder<T> holder = holder();
+        if (holder != null) {
+            holder.value = null;
+            holder.loaded = false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Holder<T> holder() {
+        return (Holder<T>) TransactionSynchronizationManager.getResource(key);
+    }
+
+    private static final class Holder<T> {
+        T value;
+        boolean loaded;
+    }
+}
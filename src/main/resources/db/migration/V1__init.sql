@@ -0,0 +1,34 @@
+-- 엔티티 매핑(ddl-auto: validate)과 맞춰야 함
+
+create sequence member_seq start with 1 increment by 50;
+create sequence team_seq start with 1 increment by 50;
+
+create table team (
+    team_id bigint not null,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    username varchar(255),
+    age integer not null,
+    team_id bigint,
+    created_date timestamp(6),
+    last_modified_date timestamp(6),
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team (team_id)
+);
+
+-- username 조회 (findByUsername, findLockByUsername ...) + 키셋 페이징 (username, id)
+create index idx_member_username_id on member (username, member_id);
+-- where age = ? order by username desc (findByPage) / age 조건 (totalCount, bulkAgePlus)
+create index idx_member_age_username on member (age, username);
+-- 팀으로 회원 조회, Team.members 배치 로딩
+create index idx_member_team_id on member (team_id);
+
+create table item (
+    id bigint not null,
+    created_date timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,5 @@
+-- @Version (낙관적 락) - 기존 행은 0부터 시작
+-- update ... set version = version + 1 where id = ? and version = ? 로 동시 수정 감지
+
+alter table member add column version bigint default 0 not null;
+alter table team add column version bigint default 0 not null;
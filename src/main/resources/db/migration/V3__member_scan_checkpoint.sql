@@ -0,0 +1,10 @@
+-- MemberPartitionScanner 재시작 지점 - 청크(회원 id 범위 [chunk_from, chunk_to)) 처리와 같은 트랜잭션에서 insert
+-- 다시 실행하면 여기 있는 청크는 건너뜀, 작업이 끝까지 성공하면 그 작업의 행은 지움
+create table member_scan_checkpoint (
+    job_name varchar(100) not null,
+    chunk_from bigint not null,
+    chunk_to bigint not null,
+    members integer not null,
+    completed_date timestamp(6) not null,
+    primary key (job_name, chunk_from, chunk_to)
+);
@@ -0,0 +1,191 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 복제본 2개를 메모리 H2 로 흉내냄 (스키마만 같고 데이터는 복제 안 됨)
+ * -> primary 에만 저장한 회원이 조회되는지로 어느 쪽으로 갔는지 확인 + 라우팅 메트릭
+ */
+@SpringBootTest(properties = {
+        "datajpa.routing.enabled=true",
+        "datajpa.routing.migrate-replicas=true",
+        "datajpa.routing.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA0,
+        "datajpa.routing.replicas[1].url=" + ReadReplicaRoutingTest.REPLICA1,
+        "datajpa.routing.lag-query=select lag_millis from replica_lag",
+        "datajpa.routing.max-lag=5s",
+        "datajpa.routing.lag-check-interval=1h" // 테스트에서 직접 checkLag() 호출
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA0 = "jdbc:h2:mem:routing-replica0;DB_CLOSE_DELAY=-1";
+    static final String REPLICA1 = "jdbc:h2:mem:routing-replica1;DB_CLOSE_DELAY=-1";
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired DataSource dataSource;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired MockMvc mockMvc;
+
+    ReplicaRoutingDataSource routing;
+    TransactionTemplate readOnly;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        setLag(REPLICA0, 0);
+        setLag(REPLICA1, 0);
+        memberRepository.save(new Member("routingMember", 10)); // primary 에만 있음
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll(memberRepository.findEntityGraphByUsername("routingMember"));
+        memberRepository.deleteAll(memberRepository.findEntityGraphByUsername("routingWriter"));
+    }
+
+    void setLag(String url, long lagMillis) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists replica_lag (lag_millis bigint)");
+            statement.execute("delete from replica_lag");
+            statement.execute("insert into replica_lag values (" + lagMillis + ")");
+        }
+        routing.checkLag();
+    }
+
+    List<Member> findMember(TransactionTemplate tx) {
+        return tx.execute(status -> memberRepository.findEntityGraphByUsername("routingMember"));
+    }
+
+    double routed(String route, String type) {
+        return meterRegistry.counter("datajpa.datasource.route", "route", route, "type", type).count();
+    }
+
+    @Test
+    public void readOnlyTransactionsRoundRobinOverReplicas() {
+        double replica0 = routed("replica0", "read");
+        double replica1 = routed("replica1", "read");
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(findMember(readOnly)).isEmpty();
+        }
+
+        assertThat(routed("replica0", "read") - replica0).isEqualTo(2);
+        assertThat(routed("replica1", "read") - replica1).isEqualTo(2);
+    }
+
+    @Test
+    public void writesAndReadWriteTransactionsStayOnPrimary() {
+        double writes = routed(ReplicaRoutingDataSource.PRIMARY, "write");
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        assertThat(findMember(readWrite)).hasSize(1);
+
+        assertThat(routed(ReplicaRoutingDataSource.PRIMARY, "write") - writes).isEqualTo(1);
+    }
+
+    @Test
+    public void readOnlyHintedQueryOutsideTransactionGoesToReplica() {
+        assertThat(memberRepository.findReadOnlyByUsername("routingMember")).isNull(); // 복제본에는 없음
+        assertThat(findMember(readOnly)).isEmpty();
+    }
+
+    @Test
+    public void laggingReplicaSkipped() throws SQLException {
+        setLag(REPLICA0, 10_000);
+        double replica0 = routed("replica0", "read");
+        double replica1 = routed("replica1", "read");
+
+        for (int i = 0; i < 4; i++) {
+            findMember(readOnly);
+        }
+
+        assertThat(routed("replica0", "read") - replica0).isZero();
+        assertThat(routed("replica1", "read") - replica1).isEqualTo(4);
+        assertThat(routing.replicaLags()).containsEntry("replica0", 10_000L).containsEntry("replica1", 0L);
+    }
+
+    @Test
+    public void fallbackToPrimaryWhenAllReplicasLag() throws SQLException {
+        setLag(REPLICA0, 10_000);
+        setLag(REPLICA1, 10_000);
+        double fallbacks = routed(ReplicaRoutingDataSource.PRIMARY, "fallback");
+
+        assertThat(findMember(readOnly)).hasSize(1); // primary 에서 읽음
+
+        assertThat(routed(ReplicaRoutingDataSource.PRIMARY, "fallback") - fallbacks).isEqualTo(1);
+    }
+
+    @Test
+    public void writeAfterReadOnlyReadInSameRequestGoesToPrimary() throws Exception {
+        double writes = routed(ReplicaRoutingDataSource.PRIMARY, "write");
+
+        // open-in-view 로 요청 내내 EntityManager 하나 - 복제본 커넥션을 잡은 채로 쓰기 트랜잭션이 오면 안 됨
+        mockMvc.perform(post("/test/routing/read-then-write").param("username", "routingWriter"))
+                .andExpect(status().isOk());
+
+        assertThat(routed(ReplicaRoutingDataSource.PRIMARY, "write") - writes).isGreaterThanOrEqualTo(1);
+        assertThat(findMember(new TransactionTemplate(transactionManager), "routingWriter")).hasSize(1); // primary 에 저장됨
+    }
+
+    List<Member> findMember(TransactionTemplate tx, String username) {
+        return tx.execute(status -> memberRepository.findEntityGraphByUsername(username));
+    }
+
+    @TestConfiguration
+    static class ReadThenWriteConfig {
+
+        @Bean
+        ReadThenWriteController readThenWriteController(MemberRepository memberRepository) {
+            return new ReadThenWriteController(memberRepository);
+        }
+    }
+
+    /** 한 요청에서 읽기 전용 조회(복제본) 다음에 저장(primary) **/
+    @RestController
+    static class ReadThenWriteController {
+
+        private final MemberRepository memberRepository;
+
+        ReadThenWriteController(MemberRepository memberRepository) {
+            this.memberRepository = memberRepository;
+        }
+
+        @PostMapping("/test/routing/read-then-write")
+        public Long readThenWrite(@RequestParam String username) {
+            memberRepository.findReadOnlyByUsername(username); // @Transactional(readOnly = true) -> 복제본
+            return memberRepository.save(new Member(username, 10)).getId(); // 쓰기 트랜잭션 -> primary 여야 함
+        }
+    }
+}
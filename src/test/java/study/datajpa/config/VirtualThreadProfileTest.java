@@ -0,0 +1,37 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/** application-virtual.yml 이 적용되는지 - 비동기 실행기는 가상 스레드, 커넥션 풀은 고정 크기 **/
+@SpringBootTest
+@ActiveProfiles("virtual")
+class VirtualThreadProfileTest {
+
+    @Autowired AsyncTaskExecutor applicationTaskExecutor; // StreamingResponseBody, @Async 가 쓰는 실행기
+    @Autowired DataSource dataSource;
+
+    @Test
+    public void asyncTasksRunOnVirtualThreads() throws Exception {
+        Future<Boolean> virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual());
+
+        assertThat(virtual.get()).isTrue();
+    }
+
+    @Test
+    public void fixedSizeConnectionPool() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class); // p6spy 데코레이터 안쪽
+
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(hikari.getMinimumIdle()).isEqualTo(20);
+    }
+}
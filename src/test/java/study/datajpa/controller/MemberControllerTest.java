@@ -0,0 +1,113 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.SqlStatementCounter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MemberRepository memberRepository;
+    @Autowired ObjectMapper objectMapper;
+
+    @Test
+    public void listStatementBudget() throws Exception {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            mockMvc.perform(get("/members"))
+                    .andExpect(status().isOk());
+
+            assertThat(scope.total()).isLessThanOrEqualTo(2); // 목록 + count
+        }
+    }
+
+    @Test
+    public void approximateTotalIsServedFromCountCache() throws Exception {
+        mockMvc.perform(get("/members")); // 캐시 채움
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            mockMvc.perform(get("/members"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-Total-Count-Mode", "approximate"))
+                    .andExpect(jsonPath("$.content.length()").value(5))
+                    .andExpect(jsonPath("$.totalElements").isNumber());
+
+            assertThat(scope.total()).isEqualTo(1); // 목록만
+        }
+    }
+
+    @Test
+    public void exactTotalOnRequest() throws Exception {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            mockMvc.perform(get("/members").param("count", "exact"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-Total-Count-Mode", "exact"));
+
+            assertThat(scope.total()).isEqualTo(2); // 목록 + count
+        }
+    }
+
+    @Test
+    public void approximateTotalIsExactOnTheLastPage() throws Exception {
+        long total = memberRepository.count();
+        mockMvc.perform(get("/members").param("size", String.valueOf(total + 10)))
+                .andExpect(jsonPath("$.totalElements").value(total));
+    }
+
+    long approximateTotal() throws Exception {
+        MvcResult result = mockMvc.perform(get("/members")).andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("totalElements").asLong();
+    }
+
+    @Test
+    public void sliceModeSkipsCountQuery() throws Exception {
+        long total = approximateTotal(); // 캐시 채움
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            mockMvc.perform(get("/members").param("mode", "slice").param("size", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(5))
+                    .andExpect(jsonPath("$.number").value(0))
+                    .andExpect(jsonPath("$.hasNext").value(true)) // MemberController.init() 이 회원 100명 저장
+                    .andExpect(jsonPath("$.estimatedTotal").value(total)); // Page 와 같은 값
+
+            assertThat(scope.total()).isEqualTo(1); // size + 1 개 조회 하나, count 없음
+        }
+    }
+
+    @Test
+    public void batchDeleteInvalidatesCachedTotal() throws Exception {
+        long total = approximateTotal();
+        List<Member> saved = memberRepository.saveAll(List.of(new Member("countCache1"), new Member("countCache2")));
+        try {
+            memberRepository.deleteAllByIdInBatch(List.of(saved.get(0).getId())); // 벌크 삭제 -> 캐시에서 지움
+            assertThat(approximateTotal()).isEqualTo(total + 1); // 일반 저장만으로는 캐시 값 그대로였음
+        } finally {
+            memberRepository.deleteAllByIdInBatch(saved.stream().map(Member::getId).toList());
+        }
+    }
+
+    @Test
+    public void sliceModeLastPage() throws Exception {
+        mockMvc.perform(get("/members").param("mode", "slice").param("page", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+}
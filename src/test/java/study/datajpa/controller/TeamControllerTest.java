@@ -0,0 +1,86 @@
+package study.datajpa.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.SqlStatementCounter;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class TeamControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @PersistenceContext EntityManager em;
+
+    Team empty;
+    Team small;
+    Team large;
+
+    @BeforeEach
+    public void setUp() {
+        empty = new Team("teamListEmpty");
+        small = new Team("teamListSmall");
+        large = new Team("teamListLarge");
+        em.persist(empty);
+        em.persist(small);
+        em.persist(large);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("small" + i, 10, small));
+        }
+        for (int i = 0; i < 300; i++) {
+            em.persist(new Member("large" + i, 10, large));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void pageTeamsWithBoundedMembers() throws Exception {
+        // id 역순이라 방금 만든 팀 3개가 첫 페이지
+        mockMvc.perform(get("/teams").param("page", "1").param("size", "3").param("sort", "id,desc").param("members", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("teamListLarge"))
+                .andExpect(jsonPath("$.content[0].memberCount").value(300))
+                .andExpect(jsonPath("$.content[0].members", hasSize(3)))
+                .andExpect(jsonPath("$.content[0].members[0].username").value("large0"))
+                .andExpect(jsonPath("$.content[0].members[0].teamname").value("teamListLarge"))
+                .andExpect(jsonPath("$.content[1].memberCount").value(5))
+                .andExpect(jsonPath("$.content[1].members", hasSize(3)))
+                .andExpect(jsonPath("$.content[2].memberCount").value(0))
+                .andExpect(jsonPath("$.content[2].members", hasSize(0)));
+    }
+
+    @Test
+    public void fixedStatementsWhateverTheTeamSizes() throws Exception {
+        for (String members : new String[]{"1", "10", "100"}) {
+            try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+                mockMvc.perform(get("/teams").param("size", "3").param("sort", "id,desc").param("members", members))
+                        .andExpect(status().isOk());
+
+                assertThat(scope.total()).isEqualTo(3); // 팀 페이지 + count + 회원 (N + 1 없음)
+            }
+        }
+    }
+
+    @Test
+    public void capPageSize() throws Exception {
+        mockMvc.perform(get("/teams").param("size", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(100));
+    }
+}
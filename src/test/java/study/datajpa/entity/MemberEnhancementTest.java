@@ -0,0 +1,99 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.support.SqlStatementCounter;
+import study.datajpa.support.TestMembers;
+
+import static org.assertj.core.api.Assertions.*;
+
+// build.gradle 의 hibernate { enhancement } 로 향상된 클래스로만 통과 (IDE 에서 직접 컴파일한 클래스면 실패)
+@SpringBootTest
+@Transactional
+class MemberEnhancementTest {
+
+    static final int AGE = TestMembers.AGE;
+
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void entitiesAreEnhanced() {
+        assertThat(SelfDirtinessTracker.class).isAssignableFrom(Member.class).isAssignableFrom(Team.class);
+    }
+
+    @Test
+    public void onlyModifiedAttributesAreTracked() {
+        Member member = new Member("enhanced", AGE);
+        em.persist(member);
+        em.flush();
+        em.clear();
+
+        Member found = em.find(Member.class, member.getId());
+        assertThat(((SelfDirtinessTracker) found).$$_hibernate_hasDirtyAttributes()).isFalse();
+
+        found.setAge(AGE + 1);
+        assertThat(((SelfDirtinessTracker) found).$$_hibernate_getDirtyAttributes()).containsExactly("age");
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            em.flush();
+            assertThat(scope.total()).isEqualTo(1); // update 하나
+        }
+        assertThat(((SelfDirtinessTracker) found).$$_hibernate_hasDirtyAttributes()).isFalse();
+    }
+
+    @Test
+    public void changeTeamIsIdempotent() {
+        Team teamA = new Team("enhancedTeamA");
+        Team teamB = new Team("enhancedTeamB");
+        Member member = new Member("enhanced", AGE, teamA);
+
+        member.changeTeam(teamA);
+        assertThat(teamA.getMembers()).containsExactly(member);
+
+        member.changeTeam(teamB);
+        assertThat(teamA.getMembers()).isEmpty();
+        assertThat(teamB.getMembers()).containsExactly(member);
+    }
+
+    @Test
+    public void changeTeamLeavesUnloadedMembersUnloaded() {
+        Team teamA = new Team("enhancedTeamA");
+        Team teamB = new Team("enhancedTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member = new Member("enhanced", AGE, teamA);
+        em.persist(member);
+        em.flush();
+        em.clear();
+
+        Member found = em.find(Member.class, member.getId());
+        Team foundA = found.getTeam();
+        Team foundB = em.find(Team.class, teamB.getId());
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            found.changeTeam(foundB);
+            assertThat(scope.total()).isZero(); // 어느 팀의 members 도 조회하지 않음
+        }
+        assertThat(Hibernate.isInitialized(foundA.getMembers())).isFalse();
+        assertThat(Hibernate.isInitialized(foundB.getMembers())).isFalse();
+
+        em.flush();
+        em.clear();
+        assertThat(em.find(Team.class, teamA.getId()).getMembers()).isEmpty();
+        assertThat(em.find(Team.class, teamB.getId()).getMembers()).extracting(Member::getId).containsExactly(member.getId());
+    }
+
+    @Test
+    public void settingTheOwningSideLeavesTheInverseSideAlone() { // association management 는 끔 - changeTeam 을 써야 함
+        Team team = new Team("enhancedTeam");
+        Member member = new Member("enhanced", AGE);
+
+        member.setTeam(team);
+
+        assertThat(team.getMembers()).isEmpty();
+    }
+}
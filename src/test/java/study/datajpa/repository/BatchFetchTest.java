@@ -0,0 +1,69 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.SqlStatementCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/** 회원 1,000명 / 팀 100개 - 지연 로딩을 배치로 모아서 초기화하는지 쿼리 개수로 확인 **/
+@SpringBootTest
+@Transactional
+class BatchFetchTest {
+
+    @PersistenceContext EntityManager em;
+
+    @BeforeEach
+    public void setUp() {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Team team = new Team("fetchTeam" + i);
+            em.persist(team);
+            teams.add(team);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            em.persist(new Member("fetchMember" + i, i % 50, teams.get(i % 100)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void memberTeamProxiesLoadedInBatch() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            List<Member> members = em.createQuery("select m from Member m where m.username like 'fetchMember%'", Member.class)
+                    .getResultList();
+            for (Member member : members) {
+                member.getTeam().getName(); // 프록시 초기화
+            }
+
+            assertThat(members).hasSize(1_000);
+            assertThat(scope.total()).isEqualTo(2); // 회원 1번 + 팀 100개 배치 1번 (배치 없으면 1 + 100)
+            assertThat(scope.repeatedSelects(2)).isEmpty();
+        }
+    }
+
+    @Test
+    public void teamMembersCollectionsLoadedInBatch() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            List<Team> teams = em.createQuery("select t from Team t where t.name like 'fetchTeam%'", Team.class)
+                    .getResultList();
+            int memberCount = 0;
+            for (Team team : teams) {
+                memberCount += team.getMembers().size(); // 컬렉션 초기화
+            }
+
+            assertThat(memberCount).isEqualTo(1_000);
+            assertThat(scope.total()).isEqualTo(3); // 팀 1번 + 컬렉션 @BatchSize(50) 씩 2번
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ItemIngestTest {
+
+    static final long BASE_ID = 9_000_000_000L;
+
+    @Autowired ItemRepository itemRepository;
+    @Autowired DateTimeProvider auditingDateTimeProvider;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void insertAll() {
+        // given
+        long before = itemRepository.count();
+        List<Item> items = items(0, 250); // 100개짜리 문장 2번 + 50개짜리 1번
+
+        // when
+        int inserted = itemRepository.insertAll(items);
+
+        // then
+        assertThat(inserted).isEqualTo(250);
+        assertThat(itemRepository.count()).isEqualTo(before + 250);
+        assertThat(items).noneMatch(Item::isNew); // createdDate가 채워져서 save 해도 insert 다시 안 함
+    }
+
+    @Test
+    public void insertIfAbsentSkipsExistingIds() {
+        // given
+        itemRepository.insertAll(items(0, 100));
+        long before = itemRepository.count();
+        List<Item> items = new ArrayList<>(items(50, 150)); // 50 ~ 99 는 이미 있음
+        items.addAll(items(120, 130)); // 같은 id 가 한 번 더 -> 처음 것만
+
+        // when
+        int inserted = itemRepository.insertIfAbsent(items);
+
+        // then
+        assertThat(inserted).isEqualTo(50); // 새로운 100 ~ 149 만
+        assertThat(itemRepository.count()).isEqualTo(before + 50);
+        assertThat(items.subList(0, 50)).allMatch(Item::isNew); // 이미 있던 id 는 createdDate 를 채우지 않음
+        assertThat(items.subList(50, 100)).noneMatch(Item::isNew);
+    }
+
+    @Test
+    public void createdDateComesFromAuditingDateTimeProvider() {
+        LocalDateTime now = LocalDateTime.from(auditingDateTimeProvider.getNow().orElseThrow());
+
+        itemRepository.insertAll(items(0, 10));
+        itemRepository.insertIfAbsent(items(5, 20));
+
+        List<LocalDateTime> createdDates = jdbcTemplate.queryForList(
+                "select created_date from item where id between ? and ?", LocalDateTime.class, BASE_ID, BASE_ID + 19);
+        assertThat(createdDates).hasSize(20) // timestamp(6) 라 마이크로초로 반올림
+                .allSatisfy(createdDate -> assertThat(createdDate).isCloseTo(now, within(1, ChronoUnit.MICROS)));
+    }
+
+    private static List<Item> items(long from, long to) {
+        return LongStream.range(from, to).mapToObj(i -> new Item(BASE_ID + i)).toList();
+    }
+}
@@ -0,0 +1,173 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.TestMembers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 커밋된 변경만 집계에 들어가니 트랜잭션마다 커밋
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberAggregateStoreTest {
+
+    static final int AGE = TestMembers.AGE;
+
+    @RegisterExtension TestMembers testMembers = new TestMembers();
+
+    @Autowired MemberAggregateStore store;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired MockMvc mockMvc;
+    @PersistenceContext EntityManager em;
+
+    Team saveTeam(String name) {
+        return transactionTemplate.execute(status -> {
+            Team team = new Team(name);
+            em.persist(team);
+            testMembers.trackTeam(team.getId());
+            return team;
+        });
+    }
+
+    Long saveMember(int age, Team team) {
+        return transactionTemplate.execute(status -> {
+            Member member = new Member("aggregate", age, team == null ? null : em.getReference(Team.class, team.getId()));
+            em.persist(member);
+            return testMembers.trackMember(member.getId());
+        });
+    }
+
+    @Test
+    public void followCommittedInsertUpdateDelete() {
+        Team teamA = saveTeam("aggregateTeamA");
+        Team teamB = saveTeam("aggregateTeamB");
+        long total = store.total();
+
+        Long memberId = saveMember(AGE, teamA);
+        assertThat(store.total()).isEqualTo(total + 1);
+        assertThat(store.countByTeam(teamA.getId())).isEqualTo(1);
+        assertThat(store.countByAge(AGE)).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> { // 팀 이동 + 나이 변경
+            Member member = em.find(Member.class, memberId);
+            member.changeTeam(em.find(Team.class, teamB.getId()));
+            member.setAge(AGE + 1);
+        });
+        assertThat(store.total()).isEqualTo(total + 1);
+        assertThat(store.countByTeam(teamA.getId())).isZero();
+        assertThat(store.countByTeam(teamB.getId())).isEqualTo(1);
+        assertThat(store.countByAge(AGE)).isZero();
+        assertThat(store.countByAge(AGE + 1)).isEqualTo(1);
+        assertThat(store.teamCounts()).doesNotContainKey(teamA.getId());
+
+        transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, memberId)));
+        assertThat(store.total()).isEqualTo(total);
+        assertThat(store.countByTeam(teamB.getId())).isZero();
+        assertThat(store.ageHistogram()).doesNotContainKey(AGE + 1);
+        assertThat(store.check()).isTrue();
+    }
+
+    @Test
+    public void ignoreRolledBackChanges() {
+        long total = store.total();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("aggregate", AGE));
+            em.flush(); // insert 는 나갔지만
+            status.setRollbackOnly();
+        });
+
+        assertThat(store.total()).isEqualTo(total);
+        assertThat(store.countByAge(AGE)).isZero();
+    }
+
+    @Test
+    public void reconcileAfterBulkUpdates() {
+        Team team = saveTeam("aggregateTeam");
+        for (int i = 0; i < 3; i++) {
+            saveMember(AGE + 100, team);
+        }
+
+        memberRepository.bulkAgePlusInChunks(AGE + 100, AGE + 100, 1, 2); // JDBC
+        assertThat(store.countByAge(AGE + 100)).isZero();
+        assertThat(store.countByAge(AGE + 101)).isEqualTo(3);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            memberJpaRepository.bulkAgePlus(AGE + 101); // JPQL
+            assertThat(store.countByAge(AGE + 102)).isZero(); // 커밋 전
+        });
+        assertThat(store.countByAge(AGE + 101)).isZero();
+        assertThat(store.countByAge(AGE + 102)).isEqualTo(3);
+        assertThat(store.countByTeam(team.getId())).isEqualTo(3);
+    }
+
+    @Test
+    public void reconcileAfterSpringDataBatchDeletes() {
+        Team team = saveTeam("aggregateTeam");
+        Long first = saveMember(AGE + 400, team);
+        Long second = saveMember(AGE + 400, team);
+        Long third = saveMember(AGE + 400, team);
+        long total = store.total();
+
+        memberRepository.deleteAllByIdInBatch(List.of(first)); // 트랜잭션 밖 - 바로 다시 셈
+        assertThat(store.countByAge(AGE + 400)).isEqualTo(2);
+        assertThat(store.total()).isEqualTo(total - 1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.deleteAllInBatch(memberRepository.findAllById(List.of(second, third)));
+            assertThat(store.countByAge(AGE + 400)).isEqualTo(2); // 커밋 전
+        });
+        assertThat(store.countByAge(AGE + 400)).isZero();
+        assertThat(store.countByTeam(team.getId())).isZero();
+        assertThat(store.total()).isEqualTo(total - 3);
+        assertThat(store.check()).isTrue();
+    }
+
+    @Test
+    public void checkerRepairsDrift() {
+        double drifts = meterRegistry.get("datajpa.aggregates.drift").counter().count();
+        long total = store.total();
+        jdbcTemplate.update("insert into member (member_id, username, age, version) values (next value for member_seq, 'aggregate', ?, 0)", AGE + 200); // 이벤트 없이
+        testMembers.trackMember(jdbcTemplate.queryForObject("select member_id from member where age = ?", Long.class, AGE + 200));
+
+        assertThat(store.countByAge(AGE + 200)).isZero();
+        assertThat(store.check()).isFalse();
+        assertThat(store.countByAge(AGE + 200)).isEqualTo(1);
+        assertThat(store.total()).isEqualTo(total + 1);
+        assertThat(store.check()).isTrue();
+        assertThat(meterRegistry.get("datajpa.aggregates.drift").counter().count()).isEqualTo(drifts + 1);
+    }
+
+    @Test
+    public void teamStatsEndpoint() throws Exception {
+        Team team = saveTeam("aggregateTeam");
+        saveMember(AGE + 300, team);
+        saveMember(AGE + 300, team);
+
+        mockMvc.perform(get("/teams/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalMembers").value(store.total()))
+                .andExpect(jsonPath("$.membersByTeam['" + team.getId() + "']").value(2))
+                .andExpect(jsonPath("$.membersByAge['" + (AGE + 300) + "']").value(2));
+    }
+}
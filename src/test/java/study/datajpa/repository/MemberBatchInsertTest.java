@@ -0,0 +1,48 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberBatchInsertTest {
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void saveAllBatched() {
+        // given
+        Team team = new Team("batchTeam");
+        em.persist(team);
+        Member caller = new Member("batchCaller", 10);
+        em.persist(caller);
+        em.flush();
+        long before = memberRepository.count();
+
+        // when
+        long saved = memberRepository.saveAllBatched(
+                IntStream.range(0, 1_050).mapToObj(i -> new Member("batch" + i, i % 50, i % 2 == 0 ? team : null)), 100);
+
+        // then
+        assertThat(saved).isEqualTo(1_050);
+        assertThat(memberRepository.count()).isEqualTo(before + 1_050);
+        assertThat(em.contains(team)).isTrue(); // 바깥 트랜잭션의 엔티티는 그대로 영속 상태
+        assertThat(em.contains(caller)).isTrue();
+        assertThat(team.getMembers()).hasSize(525).noneMatch(em::contains); // 저장한 회원만 detach
+        Long teamMembers = em.createQuery("select count(m) from Member m where m.team.id = :teamId", Long.class)
+                .setParameter("teamId", team.getId())
+                .getSingleResult();
+        assertThat(teamMembers).isEqualTo(525);
+    }
+}
@@ -0,0 +1,135 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.TestMembers;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 청크마다 커밋되는지, 2차 캐시에서 바뀐 회원만 빠지는지 보려고 2차 캐시 켜고 커밋까지 실행
+@SpringBootTest(properties = "datajpa.cache.enabled=true")
+class MemberBulkRepositoryTest {
+
+    static final int AGE = TestMembers.AGE;
+
+    @RegisterExtension TestMembers testMembers = new TestMembers();
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EntityManagerFactory emf;
+    @PersistenceContext EntityManager em;
+
+    List<Long> saveMembers(int count, Team team) {
+        return testMembers.trackMembers(transactionTemplate.execute(status -> IntStream.range(0, count)
+                .mapToObj(i -> {
+                    Member member = new Member("bulk" + i, AGE + i % 10, team);
+                    em.persist(member);
+                    return member.getId();
+                })
+                .toList()));
+    }
+
+    @Test
+    public void updateInChunks() {
+        // given
+        saveMembers(250, null);
+
+        // when
+        BulkMutationResult result = memberRepository.bulkAgePlusInChunks(AGE, AGE + 9, 1_000, 100);
+
+        // then
+        assertThat(result.getRowsPerChunk()).containsExactly(100, 100, 50);
+        assertThat(result.getTotal()).isEqualTo(250);
+        Long updatedOnce = transactionTemplate.execute(status -> em.createQuery(
+                        "select count(m) from Member m where m.age between :from and :to", Long.class)
+                .setParameter("from", AGE + 1_000).setParameter("to", AGE + 1_009)
+                .getSingleResult());
+        assertThat(updatedOnce).isEqualTo(250); // 바뀐 나이가 다시 범위에 걸려도 id 키셋이라 두 번 처리 안 함
+    }
+
+    @Test
+    public void evictOnlyAffectedMembersFromSecondLevelCache() {
+        // given
+        Team team = transactionTemplate.execute(status -> {
+            Team bulkTeam = new Team("bulkTeam");
+            em.persist(bulkTeam);
+            testMembers.trackTeam(bulkTeam.getId());
+            return bulkTeam;
+        });
+        List<Long> teamMemberIds = saveMembers(3, team);
+        List<Long> otherIds = saveMembers(2, null);
+        transactionTemplate.executeWithoutResult(status -> {
+            teamMemberIds.forEach(id -> em.find(Member.class, id)); // 2차 캐시에 적재
+            otherIds.forEach(id -> em.find(Member.class, id));
+        });
+        assertThat(emf.getCache().contains(Member.class, teamMemberIds.get(0))).isTrue();
+
+        // when
+        BulkMutationResult result = memberRepository.bulkAgePlusByTeamInChunks(team.getId(), 1, 2);
+
+        // then
+        assertThat(result.getRowsPerChunk()).containsExactly(2, 1);
+        teamMemberIds.forEach(id -> assertThat(emf.getCache().contains(Member.class, id)).isFalse());
+        otherIds.forEach(id -> assertThat(emf.getCache().contains(Member.class, id)).isTrue()); // 영역 전체를 비우지 않음
+        Member reloaded = transactionTemplate.execute(status -> em.find(Member.class, teamMemberIds.get(0)));
+        assertThat(reloaded.getAge()).isEqualTo(AGE + 1);
+    }
+
+    @Test
+    public void detachOnlyAffectedMembersFromPersistenceContext() {
+        // given
+        List<Long> ids = saveMembers(10, null); // 나이 AGE ~ AGE + 9
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Member young = em.find(Member.class, ids.get(0)); // AGE
+            Member old = em.find(Member.class, ids.get(9)); // AGE + 9
+            young.setUsername("changedBeforeBulk"); // 아직 flush 안 된 변경
+
+            // when : 바깥 트랜잭션에 참여
+            BulkMutationResult result = memberRepository.bulkAgePlusInChunks(AGE, AGE + 4, 100, 3);
+
+            // then
+            assertThat(result.getTotal()).isEqualTo(5);
+            assertThat(em.contains(young)).isFalse(); // 바뀐 회원만 detach
+            assertThat(em.contains(old)).isTrue(); // 나머지는 그대로 (clearAutomatically 와 다른 점)
+            Member reloaded = em.find(Member.class, ids.get(0));
+            assertThat(reloaded.getAge()).isEqualTo(AGE + 100);
+            assertThat(reloaded.getUsername()).isEqualTo("changedBeforeBulk"); // 시작 전에 flush 됨
+        });
+    }
+
+    @Test
+    public void deleteInChunks() {
+        // given
+        Team team = transactionTemplate.execute(status -> {
+            Team bulkTeam = new Team("bulkTeamDelete");
+            em.persist(bulkTeam);
+            testMembers.trackTeam(bulkTeam.getId());
+            return bulkTeam;
+        });
+        saveMembers(10, team);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team managed = em.find(Team.class, team.getId());
+            assertThat(managed.getMembers()).hasSize(10);
+
+            // when
+            BulkMutationResult result = memberRepository.bulkDeleteByAgeInChunks(AGE, AGE + 4, 2);
+
+            // then
+            assertThat(result.getRowsPerChunk()).containsExactly(2, 2, 1);
+            assertThat(managed.getMembers()).hasSize(5); // 이미 로딩된 팀의 회원 목록에서도 빠짐
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberDtoPageTest {
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void findMemberDtoPage() {
+        // given
+        Team team = new Team("dtoTeam");
+        em.persist(team);
+        em.persist(new Member("  dto1", 10, team)); // 공백으로 시작해서 username 정렬 시 맨 앞
+        em.persist(new Member("  dto2", 20));
+        em.flush();
+        em.clear();
+        long total = memberRepository.count();
+
+        // when
+        Page<MemberDto> page = memberRepository.findMemberDtoBy(PageRequest.of(0, 2, Sort.by("username")));
+
+        // then
+        assertThat(page.getContent()).extracting("username").containsExactly("  dto1", "  dto2");
+        assertThat(page.getContent()).extracting("teamname").containsExactly("dtoTeam", null);
+        assertThat(page.getTotalElements()).isEqualTo(total);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero(); // 관리되는 엔티티 없음
+    }
+}
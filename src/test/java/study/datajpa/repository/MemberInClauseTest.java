@@ -0,0 +1,112 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryInterpretationCache;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.support.SqlStatementCounter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberInClauseTest {
+
+    static final int MEMBERS = 20;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManagerFactory emf;
+    @Autowired MeterRegistry meterRegistry;
+    @PersistenceContext EntityManager em;
+
+    SessionFactoryImplementor sessionFactory;
+
+    @BeforeEach
+    public void setUp() {
+        sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        for (int i = 0; i < MEMBERS; i++) {
+            em.persist(new Member(username(i), 10));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    static String username(int i) {
+        return String.format("inClause%04d", i);
+    }
+
+    static List<String> usernames(int count) {
+        return IntStream.range(0, count).mapToObj(MemberInClauseTest::username).toList();
+    }
+
+    @Test
+    public void steadyPlanCacheAcrossListSizes() {
+        QueryInterpretationCache cache = sessionFactory.getQueryEngine().getInterpretationCache();
+        Statistics statistics = sessionFactory.getStatistics();
+        memberRepository.findByUsernames(usernames(1)); // JPQL 해석은 처음 한 번만 캐시에 들어감
+        int cachedHql = cache.getNumberOfCachedHqlInterpretations();
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        Set<Integer> cacheSizes = new HashSet<>();
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            for (int count = 1; count <= 1_000; count++) {
+                List<Member> members = memberRepository.findByUsernames(usernames(count));
+
+                assertThat(members).hasSize(Math.min(count, MEMBERS));
+                cacheSizes.add(cache.getNumberOfCachedHqlInterpretations());
+            }
+
+            // 1, 2, 4 ... 512 자리 IN 절 10개 (513개 이상은 512 + 나머지로 나눠서 실행)
+            assertThat(scope.statements()).hasSize(10);
+            assertThat(scope.total()).isEqualTo(512 + 2 * 488);
+        }
+        assertThat(cacheSizes).containsExactly(cachedHql); // 리스트 길이와 상관없이 캐시 크기 그대로
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    public void duplicatesAreQueriedOnce() {
+        List<String> usernames = List.of(username(0), username(1), username(0), username(1), username(1));
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            assertThat(memberRepository.findByUsernames(usernames))
+                    .extracting(Member::getUsername)
+                    .containsExactlyInAnyOrder(username(0), username(1));
+            assertThat(scope.statements()).singleElement().asString().contains("in (?,?)");
+        }
+    }
+
+    @Test
+    public void emptyListRunsNoQuery() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            assertThat(memberRepository.findByUsernames(List.of())).isEmpty();
+            assertThat(scope.total()).isZero();
+        }
+    }
+
+    @Test
+    public void planCacheMetrics() {
+        memberRepository.findByUsernames(usernames(3));
+        memberRepository.findByUsernames(usernames(3));
+
+        assertThat(meterRegistry.get("datajpa.hibernate.query.plan.cache.hit.ratio").gauge().value()).isBetween(0.0, 1.0);
+        assertThat(meterRegistry.get("datajpa.hibernate.query.plan.cache.size").tag("cache", "hql").gauge().value())
+                .isPositive();
+        assertThat(meterRegistry.get("hibernate.cache.query.plan").tag("result", "hit").functionCounter().count())
+                .isPositive();
+    }
+}
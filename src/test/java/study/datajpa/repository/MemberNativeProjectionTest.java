@@ -0,0 +1,90 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberNativeProjectionTest {
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @BeforeEach
+    public void setUp() {
+        Team teamA = new Team("nativeTeamA");
+        Team teamB = new Team("nativeTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("  native1", 0, teamA)); // 공백으로 시작해서 username 정렬 시 맨 앞
+        em.persist(new Member("  native2", 0, teamB));
+        em.persist(new Member("  native3", 0));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void nativeProjectionPage() {
+        long members = memberRepository.count();
+
+        Page<MemberProjection> page = memberRepository.findByNativeProjection(PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize((int) Math.min(10, members));
+        assertThat(page.getTotalElements()).isEqualTo(members); // 조인 때문에 행이 늘어나지 않음 (카테시안 곱 X)
+    }
+
+    @Test
+    public void nativeProjectionKeyset() {
+        List<MemberProjection> first = memberRepository.findByNativeProjectionAfter("", 0L, Limit.of(2));
+        List<MemberProjection> next = memberRepository.findByNativeProjectionAfter(
+                first.get(1).getUsername(), first.get(1).getId(), Limit.of(2));
+
+        assertThat(first).extracting(MemberProjection::getUsername).containsExactly("  native1", "  native2");
+        assertThat(first).extracting(MemberProjection::getTeamName).containsExactly("nativeTeamA", "nativeTeamB");
+        assertThat(next.get(0).getUsername()).isEqualTo("  native3");
+        assertThat(next.get(0).getTeamName()).isNull();
+    }
+
+    @Test
+    public void nativeProjectionKeysetTieBreaksOnId() { // 같은 username 은 member_id 로 이어서
+        Member duplicate = new Member("  native2", 1);
+        em.persist(duplicate);
+        em.flush();
+        List<MemberProjection> first = memberRepository.findByNativeProjectionAfter("", 0L, Limit.of(2));
+
+        List<MemberProjection> next = memberRepository.findByNativeProjectionAfter(
+                first.get(1).getUsername(), first.get(1).getId(), Limit.of(2));
+
+        assertThat(next).extracting(MemberProjection::getId)
+                .first().isEqualTo(duplicate.getId());
+        assertThat(next).extracting(MemberProjection::getUsername).containsExactly("  native2", "  native3");
+    }
+
+    @Test
+    public void nativeProjectionPlans() { // H2 실행 계획으로 인덱스를 타는지 확인
+        String join = explain(MemberRepository.MEMBER_PROJECTION_SQL);
+        String keyset = explain(MemberRepository.MEMBER_PROJECTION_KEYSET_SQL
+                .replace(":username", "'a'").replace(":id", "0") + " fetch first 20 rows only");
+
+        assertThat(join).contains("TEAM_ID = M.TEAM_ID"); // 팀은 PK로 조인
+        assertThat(keyset).contains("IDX_MEMBER_USERNAME_ID").contains("index sorted"); // 인덱스 범위 스캔 + 정렬 생략
+    }
+
+    private String explain(String sql) {
+        return (String) em.createNativeQuery("explain " + sql).getSingleResult();
+    }
+}
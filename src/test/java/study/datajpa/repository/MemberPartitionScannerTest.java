@@ -0,0 +1,156 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.support.TestMembers;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 청크마다 커밋하는 걸 봐야 해서 테스트 트랜잭션으로 감싸지 않음
+@SpringBootTest
+class MemberPartitionScannerTest {
+
+    static final int AGE = TestMembers.AGE;
+    static final int MEMBERS = 120;
+    static final int CHUNK_SIZE = 10;
+    static final String JOB = "scanTest";
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @RegisterExtension TestMembers testMembers = new TestMembers();
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberPartitionScanner scanner;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired TransactionTemplate transactionTemplate;
+    @PersistenceContext EntityManager em;
+
+    List<Long> memberIds;
+
+    @BeforeEach
+    public void setUp() {
+        memberRepository.saveAllBatched(IntStream.range(0, MEMBERS).mapToObj(i -> new Member("scan" + i, AGE)), 100);
+        memberIds = testMembers.trackMembers(
+                jdbcTemplate.queryForList("select member_id from member where age = ? order by member_id", Long.class, AGE));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        scanner.deleteCheckpoints(JOB);
+    }
+
+    MemberPartitionScanner scanner(MemberPartitionScanner.WorkerPool workerPool, int parallelism) {
+        return new MemberPartitionScanner(em, jdbcTemplate, transactionManager, meterRegistry,
+                Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()), workerPool, parallelism, CHUNK_SIZE);
+    }
+
+    /** 이 테스트 회원만 나이 + 1 (다른 테스트가 남긴 회원도 같이 스캔됨) **/
+    static Consumer<List<Member>> agePlusOne(Set<Long> seen) {
+        return members -> members.stream()
+                .filter(member -> member.getAge() >= AGE)
+                .forEach(member -> {
+                    assertThat(seen.add(member.getId())).isTrue(); // 한 번만 처리
+                    member.setAge(member.getAge() + 1); // 변경 감지 -> 청크 커밋 때 update
+                });
+    }
+
+    List<Integer> ages() {
+        return jdbcTemplate.queryForList("select age from member where age between ? and ?", Integer.class, AGE, AGE + 10);
+    }
+
+    @Test
+    public void everyMemberIsProcessedOnceAcrossWorkers() {
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<MemberScanProgress> progress = new CopyOnWriteArrayList<>();
+
+        MemberScanResult result = scanner(MemberPartitionScanner.WorkerPool.FORK_JOIN, 4).scan(JOB, CHUNK_SIZE,
+                agePlusOne(seen).andThen(members -> threads.add(Thread.currentThread().getName())), progress::add);
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(memberIds);
+        assertThat(ages()).hasSize(MEMBERS).containsOnly(AGE + 1);
+        assertThat(result.getMembers()).isGreaterThanOrEqualTo(MEMBERS);
+        assertThat(result.getSkippedChunks()).isZero();
+        assertThat(threads).allMatch(name -> name.contains("ForkJoinPool"));
+        assertThat(progress).hasSize((int) result.getChunks());
+        assertThat(progress).extracting(MemberScanProgress::getRatio).contains(1.0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member_scan_checkpoint where job_name = ?", Long.class, JOB))
+                .isZero(); // 끝까지 성공하면 체크포인트는 지움
+    }
+
+    @Test
+    public void inFlightChunksAreBoundedByParallelism() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        scanner(MemberPartitionScanner.WorkerPool.VIRTUAL, 3).scan(JOB, CHUNK_SIZE, members -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        }, progress -> {
+        });
+
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    @Test
+    public void restartSkipsCommittedChunks() {
+        Long failingId = memberIds.get(MEMBERS / 2);
+        Set<Long> firstRun = ConcurrentHashMap.newKeySet();
+        MemberPartitionScanner scanner = scanner(MemberPartitionScanner.WorkerPool.FORK_JOIN, 2);
+
+        assertThatThrownBy(() -> scanner.scan(JOB, CHUNK_SIZE, agePlusOne(firstRun).andThen(members -> {
+            if (members.stream().anyMatch(member -> member.getId().equals(failingId))) {
+                throw new IllegalStateException("chunk failed");
+            }
+        }), progress -> {
+        })).hasMessage("chunk failed");
+
+        List<Long> committed = jdbcTemplate.queryForList(
+                "select chunk_from from member_scan_checkpoint where job_name = ?", Long.class, JOB);
+        assertThat(committed).doesNotContain(Math.floorDiv(failingId, CHUNK_SIZE) * CHUNK_SIZE); // 실패한 청크는 롤백
+        assertThat(jdbcTemplate.queryForList("select completed_date from member_scan_checkpoint where job_name = ?",
+                LocalDateTime.class, JOB)).containsOnly(NOW); // 주입한 Clock 기준
+
+        Set<Long> secondRun = ConcurrentHashMap.newKeySet();
+        MemberScanResult result = scanner.scan(JOB, CHUNK_SIZE, agePlusOne(secondRun), progress -> {
+        });
+
+        assertThat(result.getSkippedChunks()).isEqualTo(committed.size());
+        assertThat(secondRun).contains(failingId);
+        assertThat(ages()).hasSize(MEMBERS).containsOnly(AGE + 1); // 커밋된 청크는 다시 처리하지 않음
+    }
+
+    @Test
+    public void mustRunOutsideTransaction() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> scanner.scan(JOB, members -> {
+        }))).isInstanceOf(IllegalStateException.class);
+    }
+}
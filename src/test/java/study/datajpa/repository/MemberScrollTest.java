@@ -0,0 +1,76 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberScrollTest {
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void scrollSameOrderAsOffsetPaging() {
+        // given
+        for (int i = 0; i < 30; i++) {
+            em.persist(new Member("scroll" + (i % 7), i)); // username 중복 -> id로 순서가 갈려야 함
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        List<Long> scrolled = new ArrayList<>();
+        Window<Member> window = memberRepository.findByOrderByUsernameAscIdAsc(ScrollPosition.keyset(), Limit.of(11));
+        while (true) {
+            window.forEach(m -> scrolled.add(m.getId()));
+            if (!window.hasNext()) break;
+            window = memberRepository.findByOrderByUsernameAscIdAsc(window.positionAt(window.size() - 1), Limit.of(11));
+        }
+
+        // then
+        List<Long> expected = memberRepository.findAll(Sort.by("username", "id")).stream()
+                .map(Member::getId)
+                .toList();
+        assertThat(scrolled).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void deepKeysetPageMatchesOffsetPage() { // 깊이에 따른 속도 비교는 MemberPagingBenchmark (jmh)
+        // given
+        int total = 1_000, size = 20;
+        for (int i = 0; i < total; i++) {
+            em.persist(new Member(String.format("deep%05d", i / 2), i % 100)); // username 중복 -> id로 순서가 갈려야 함
+        }
+        em.flush();
+        em.clear();
+
+        PageRequest deepPage = PageRequest.of((total - size) / size, size, Sort.by("username", "id"));
+        Member last = memberRepository.findAll(deepPage.previous()).getContent().get(size - 1);
+        ScrollPosition deepCursor = ScrollPosition.forward(Map.of("username", last.getUsername(), "id", last.getId()));
+        em.clear();
+
+        // when
+        Window<Member> window = memberRepository.findByOrderByUsernameAscIdAsc(deepCursor, Limit.of(size));
+
+        // then
+        assertThat(window).extracting(Member::getId)
+                .containsExactlyElementsOf(memberRepository.findAll(deepPage).map(Member::getId));
+    }
+}
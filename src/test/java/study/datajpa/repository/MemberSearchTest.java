@@ -0,0 +1,119 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryInterpretationCache;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.SqlStatementCounter;
+import study.datajpa.support.TestMembers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberSearchTest {
+
+    static final int AGE = TestMembers.AGE; // 나이 조건에 애플리케이션 회원(나이 0 ~ 99)이 안 걸리게
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManagerFactory emf;
+    @PersistenceContext EntityManager em;
+
+    @BeforeEach
+    public void setUp() {
+        Team teamA = new Team("searchTeamA");
+        Team teamB = new Team("searchTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("search1", AGE + 1, teamA));
+        em.persist(new Member("search2", AGE + 2, teamA));
+        em.persist(new Member("search3", AGE + 3, teamB));
+        em.persist(new Member("search4", AGE + 4)); // 팀 없음
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void filtersAreCombinedWithAnd() {
+        assertThat(search(new MemberSearchCondition(null, "searchTeamA", AGE + 2, null)))
+                .containsExactly("search2");
+        assertThat(search(new MemberSearchCondition(null, null, AGE + 2, AGE + 3)))
+                .containsExactly("search2", "search3");
+        assertThat(search(new MemberSearchCondition("search4", null, null, null)))
+                .containsExactly("search4"); // 팀 이름 조건이 없으면 팀 없는 회원도 나옴
+        assertThat(search(new MemberSearchCondition(" search1 ", "", AGE, AGE + 4)))
+                .containsExactly("search1"); // 공백은 잘라내고 빈 문자열은 조건 아님
+    }
+
+    @Test
+    public void teamIsFetchedInTheSameStatement() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            List<Member> members = memberRepository.search(new MemberSearchCondition(null, null, AGE + 1, AGE + 3));
+
+            assertThat(members).extracting(member -> member.getTeam().getName())
+                    .containsExactly("searchTeamA", "searchTeamA", "searchTeamB");
+            assertThat(scope.total()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void emptyAgeRangeRunsNoQuery() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            assertThat(memberRepository.search(new MemberSearchCondition(null, null, AGE + 3, AGE + 1))).isEmpty();
+            assertThat(scope.total()).isZero();
+        }
+    }
+
+    @Test
+    public void everyShapeHasItsOwnQuery() {
+        Set<String> jpql = new HashSet<>();
+        for (int shape = 0; shape < MemberSearchQuery.shapes(); shape++) {
+            jpql.add(MemberSearchQuery.jpql(shape));
+        }
+        assertThat(jpql).hasSize(16);
+        assertThat(MemberSearchQuery.jpql(0)).isEqualTo("select m from Member m left join fetch m.team t order by m.id");
+    }
+
+    @Test
+    public void valuesOnlyChangeParameters() {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        QueryInterpretationCache cache = sessionFactory.getQueryEngine().getInterpretationCache();
+        Statistics statistics = sessionFactory.getStatistics();
+        List<MemberSearchCondition> conditions = IntStream.range(0, 200)
+                .mapToObj(i -> new MemberSearchCondition("search" + i % 5, "searchTeam" + i, AGE + i % 4, AGE + i))
+                .toList();
+        memberRepository.search(conditions.get(0)); // 모양별 첫 호출만 해석
+        memberRepository.search(conditions.get(1));
+        int cachedHql = cache.getNumberOfCachedHqlInterpretations();
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            conditions.forEach(memberRepository::search);
+
+            assertThat(scope.statements()).hasSize(1); // 값이 달라도 SQL 은 하나
+        }
+        assertThat(cache.getNumberOfCachedHqlInterpretations()).isEqualTo(cachedHql);
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+    }
+
+    private List<String> search(MemberSearchCondition condition) {
+        return memberRepository.search(condition).stream()
+                .map(Member::getUsername)
+                .toList();
+    }
+}
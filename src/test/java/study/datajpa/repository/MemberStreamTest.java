@@ -0,0 +1,65 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberStreamTest {
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void streamMemberDto() {
+        // given
+        Team team = new Team("streamTeam");
+        em.persist(team);
+        em.persist(new Member("stream1", 10, team));
+        em.persist(new Member("stream2", 20));
+        em.flush();
+        em.clear();
+
+        // when
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) { // Stream은 꼭 닫아줘야 커서가 반환됨
+            result = stream.filter(dto -> dto.getUsername().startsWith("stream")).toList();
+        }
+
+        // then
+        assertThat(result).extracting("username").containsExactly("stream1", "stream2");
+        assertThat(result).extracting("teamname").containsExactly("streamTeam", null);
+    }
+
+    @Test
+    public void forEachMemberDetachesAsItGoes() {
+        // given
+        for (int i = 0; i < 50; i++) {
+            em.persist(new Member("scan" + i, i));
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        List<Member> seen = new ArrayList<>();
+        long count = memberRepository.forEachMember(10, seen::add);
+
+        // then
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(seen).hasSize((int) count);
+        assertThat(seen).noneMatch(em::contains); // 처리 끝난 엔티티는 영속성 컨텍스트에 남아있지 않음
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.TestMembers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 2차 캐시는 트랜잭션 커밋 이후에 공유되기 때문에 TransactionTemplate으로 커밋까지 함
+@SpringBootTest(properties = "datajpa.cache.enabled=true")
+class SecondLevelCacheTest {
+
+    static final int AGE = TestMembers.AGE;
+
+    @RegisterExtension TestMembers testMembers = new TestMembers();
+
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EntityManagerFactory emf;
+    @PersistenceContext EntityManager em;
+
+    Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void teamLoadedFromSecondLevelCache() {
+        // given
+        Long memberId = transactionTemplate.execute(status -> {
+            Team team = new Team("cacheTeam");
+            em.persist(team);
+            Member member = new Member("cacheMember", AGE, team);
+            em.persist(member);
+            testMembers.trackTeam(team.getId());
+            return testMembers.trackMember(member.getId());
+        });
+        statistics().clear();
+
+        // when : 다른 트랜잭션(다른 영속성 컨텍스트)에서 프록시 초기화
+        String teamName = transactionTemplate.execute(status -> em.find(Member.class, memberId).getTeam().getName());
+
+        // then
+        assertThat(teamName).isEqualTo("cacheTeam");
+        assertThat(statistics().getDomainDataRegionStatistics("team").getHitCount()).isEqualTo(1);
+        assertThat(statistics().getDomainDataRegionStatistics("member").getHitCount()).isEqualTo(1);
+        assertThat(statistics().getPrepareStatementCount()).isZero(); // DB 안 감
+    }
+
+    @Test
+    public void namedQueryCachedAndInvalidatedByBulkUpdate() {
+        // given
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = new Member("cacheQuery", AGE);
+            em.persist(member);
+            testMembers.trackMember(member.getId());
+        });
+        transactionTemplate.execute(status -> memberJpaRepository.findByUsername("cacheQuery")); // 쿼리 캐시에 적재
+        statistics().clear();
+
+        // when
+        List<Member> cached = transactionTemplate.execute(status -> memberJpaRepository.findByUsername("cacheQuery"));
+        transactionTemplate.execute(status -> memberJpaRepository.bulkAgePlus(AGE));
+        List<Member> afterBulk = transactionTemplate.execute(status -> memberJpaRepository.findByUsername("cacheQuery"));
+
+        // then
+        assertThat(cached.get(0).getAge()).isEqualTo(AGE);
+        assertThat(statistics().getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(afterBulk.get(0).getAge()).isEqualTo(AGE + 1); // 벌크 연산 후에는 캐시가 아니라 DB에서 다시 읽음
+    }
+}
@@ -0,0 +1,200 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class ApproximateCountCacheTest {
+
+    @Autowired PlatformTransactionManager transactionManager;
+
+    MeterRegistry meterRegistry;
+    MutableClock clock;
+    ApproximateCountCache cache;
+    AtomicLong rows;
+    AtomicLong counts;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        cache = new ApproximateCountCache(transactionManager, Duration.ofSeconds(10), Duration.ofSeconds(60),
+                2, 1, meterRegistry, clock);
+        rows = new AtomicLong(100);
+        counts = new AtomicLong();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.destroy();
+    }
+
+    long exactCount() {
+        counts.incrementAndGet();
+        assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+        return rows.get();
+    }
+
+    double requests(String result) {
+        return meterRegistry.get("datajpa.count.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void freshValueIsServedFromCache() {
+        assertThat(cache.count("members", null, this::exactCount)).isEqualTo(100);
+        rows.set(200);
+        clock.advance(Duration.ofSeconds(9));
+
+        assertThat(cache.count("members", null, this::exactCount)).isEqualTo(100);
+        assertThat(counts).hasValue(1);
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    public void staleValueIsServedWhileRefreshingInBackground() throws Exception {
+        cache.count("members", null, this::exactCount);
+        rows.set(200);
+        clock.advance(Duration.ofSeconds(30));
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        assertThat(cache.count("members", null, () -> {
+            long count = exactCount();
+            refreshed.countDown();
+            return count;
+        })).isEqualTo(100); // 이전 값 그대로 응답
+        assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        await(() -> cache.count("members", null, this::exactCount) == 200);
+        assertThat(counts).hasValue(2); // 갱신이 끝나기 전 요청도 다시 세지 않음
+    }
+
+    @Test
+    public void refreshIsNotRequestedTwiceForTheSameKey() throws Exception {
+        cache.count("members", null, this::exactCount);
+        clock.advance(Duration.ofSeconds(30));
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 5; i++) {
+            cache.count("members", null, () -> {
+                await(release);
+                return exactCount();
+            });
+        }
+        release.countDown();
+
+        await(() -> counts.get() == 2); // 처음 한 번 + 갱신 한 번
+        assertThat(requests("stale")).isEqualTo(5);
+    }
+
+    @Test
+    public void valuesOlderThanMaxStalenessAreRecounted() {
+        cache.count("members", null, this::exactCount);
+        rows.set(200);
+        clock.advance(Duration.ofSeconds(61));
+
+        assertThat(cache.count("members", null, this::exactCount)).isEqualTo(200);
+        assertThat(requests("miss")).isEqualTo(2);
+    }
+
+    @Test
+    public void filtersAreCachedSeparately() {
+        assertThat(cache.count("members", "a", () -> 1)).isEqualTo(1);
+        assertThat(cache.count("members", "b", () -> 2)).isEqualTo(2);
+        assertThat(cache.count("members", "a", () -> 3)).isEqualTo(1);
+
+        cache.invalidate("members");
+        assertThat(cache.count("members", "a", () -> 3)).isEqualTo(3);
+    }
+
+    @Test
+    public void invalidateAfterCommitKeepsValueUntilCommit() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        cache.count("members", null, () -> 1);
+
+        tx.executeWithoutResult(status -> {
+            cache.invalidateAfterCommit("members");
+            status.setRollbackOnly();
+        });
+        assertThat(cache.count("members", null, () -> 2)).isEqualTo(1); // 롤백 - 그대로
+
+        tx.executeWithoutResult(status -> {
+            cache.invalidateAfterCommit("members");
+            assertThat(cache.count("members", null, () -> 2)).isEqualTo(1); // 커밋 전
+        });
+        assertThat(cache.count("members", null, () -> 3)).isEqualTo(3);
+    }
+
+    @Test
+    public void oldestEntryIsEvictedOverMaxEntries() {
+        cache.count("members", "a", () -> 1);
+        clock.advance(Duration.ofSeconds(1));
+        cache.count("members", "b", () -> 2);
+        clock.advance(Duration.ofSeconds(1));
+        cache.count("members", "c", () -> 3); // maxEntries = 2
+
+        assertThat(meterRegistry.get("datajpa.count.cache.size").gauge().value()).isEqualTo(2);
+        assertThat(cache.count("members", "b", () -> 20)).isEqualTo(2);
+        assertThat(cache.count("members", "a", () -> 10)).isEqualTo(10);
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class FinderIndexCheckerTest {
+
+    @Autowired FinderIndexChecker finderIndexChecker;
+
+    @Test
+    public void repositoryFindersAreIndexed() {
+        FinderIndexChecker.Report report = finderIndexChecker.check();
+
+        assertThat(report.getUnindexed()).isEmpty();
+        assertThat(report.getUnchecked()).contains( // 검사 못 한 쿼리는 따로 보고
+                "Member.findByNativeQuery (native query)",
+                "Member.search (custom implementation)",
+                "MemberJpaRepository (EntityManager queries)");
+    }
+
+    @Test
+    public void reportUnindexedFinder() {
+        List<String> result = finderIndexChecker.check(Member.class, List.of(
+                "findByUsername", "findByAgeAndUsername", "findByTeam", "findByTeamId", "findById", // 인덱스 있음
+                "findByCreatedDate", "findByUsernameOrLastModifiedDate", "findByTeamName"));      // 인덱스 없음
+
+        assertThat(result).containsExactly(
+                "Member.findByCreatedDate[created_date]",
+                "Member.findByUsernameOrLastModifiedDate[last_modified_date]",
+                "Member.findByTeamName[team.name]"); // FK(team_id)가 아니라 team 테이블의 name
+    }
+
+    @Test
+    public void reportUnindexedJpql() { // MemberJpaRepository 처럼 EntityManager 로 직접 만드는 쿼리는 JPQL 을 넘겨서 검사
+        assertThat(finderIndexChecker.checkJpql("MemberJpaRepository.findByPage",
+                "select m from Member m where m.age = :age order by m.username desc")).isEmpty();
+        assertThat(finderIndexChecker.checkJpql("MemberJpaRepository.bulkAgePlus",
+                "update Member m set m.age = m.age + 1 where m.age >= :age")).isEmpty();
+        assertThat(finderIndexChecker.checkJpql("byTeamId",
+                "select m from Member m where m.team.id = :teamId")).isEmpty();
+
+        assertThat(finderIndexChecker.checkJpql("byCreatedOrName",
+                "select m from Member m where m.createdDate > :date or (m.username = :username and m.age > 10)"))
+                .containsExactly("byCreatedOrName[created_date]");
+        assertThat(finderIndexChecker.checkJpql("byTeamName",
+                "select m from Member m join m.team t where t.name = :name and m.createdDate > :date"))
+                .containsExactly("byTeamName[team.name, created_date]");
+    }
+}
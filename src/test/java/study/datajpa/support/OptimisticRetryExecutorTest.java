@@ -0,0 +1,167 @@
+package study.datajpa.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 커밋 시점 충돌을 보려고 트랜잭션마다 커밋
+@SpringBootTest
+class OptimisticRetryExecutorTest {
+
+    static final int AGE = TestMembers.AGE;
+
+    @RegisterExtension TestMembers testMembers = new TestMembers();
+
+    @Autowired OptimisticRetryExecutor retryExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager em;
+
+    TransactionTemplate requiresNew;
+    Long memberId;
+
+    @BeforeEach
+    public void setUp() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        memberId = transactionTemplate.execute(status -> {
+            Member member = new Member("optimistic", AGE);
+            em.persist(member);
+            return testMembers.trackMember(member.getId());
+        });
+    }
+
+    /** 다른 트랜잭션이 먼저 커밋 (age + 1) **/
+    void concurrentUpdate() {
+        requiresNew.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, memberId);
+            member.setAge(member.getAge() + 1);
+        });
+    }
+
+    Member reload() {
+        return transactionTemplate.execute(status -> em.find(Member.class, memberId));
+    }
+
+    @Test
+    public void versionIncrementsOnUpdate() {
+        assertThat(reload().getVersion()).isEqualTo(0L);
+
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, memberId).setAge(AGE + 1));
+
+        assertThat(reload().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void staleUpdateFailsOnCommit() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, memberId); // version 0
+            concurrentUpdate(); // version 1
+            member.setAge(AGE + 100); // update ... where version = 0 -> 0건
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(reload().getAge()).isEqualTo(AGE + 1); // 먼저 커밋한 쪽이 남음 (lost update 없음)
+    }
+
+    @Test
+    public void retryReloadsAndSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Integer age = retryExecutor.execute(status -> {
+            Member member = em.find(Member.class, memberId);
+            if (attempts.incrementAndGet() == 1) {
+                concurrentUpdate();
+            }
+            member.setAge(member.getAge() + 10);
+            return member.getAge();
+        });
+
+        assertThat(attempts).hasValue(2);
+        assertThat(age).isEqualTo(AGE + 11); // 두 번째 시도는 다른 트랜잭션 결과 위에 더함
+        Member reloaded = reload();
+        assertThat(reloaded.getAge()).isEqualTo(AGE + 11);
+        assertThat(reloaded.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    public void giveUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryExecutor.executeWithoutResult(status -> {
+            attempts.incrementAndGet();
+            Member member = em.find(Member.class, memberId);
+            concurrentUpdate(); // 매번 충돌
+            member.setAge(0);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(5); // datajpa.optimistic-retry.max-attempts
+        assertThat(reload().getAge()).isEqualTo(AGE + 5);
+    }
+
+    @Test
+    public void otherExceptionsAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryExecutor.executeWithoutResult(status -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("boom");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    public void refuseToRunInsideTransaction() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                retryExecutor.executeWithoutResult(inner -> em.find(Member.class, memberId))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void bulkUpdateBumpsVersion() {
+        Member stale = reload(); // detached, version 0
+
+        memberRepository.bulkAgePlusInChunks(AGE, AGE, 1, 100);
+
+        assertThat(reload().getVersion()).isEqualTo(1L);
+        stale.setAge(AGE + 100);
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> memberRepository.save(stale)))
+                .isInstanceOf(OptimisticLockingFailureException.class); // 벌크 수정을 덮어쓰지 않음
+    }
+
+    @Test
+    public void joiningTeamDoesNotBumpTeamVersion() {
+        Long teamId = transactionTemplate.execute(status -> {
+            Team team = new Team("optimisticTeam");
+            em.persist(team);
+            return testMembers.trackTeam(team.getId());
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = em.find(Team.class, teamId);
+            team.getMembers().size(); // 컬렉션 초기화 후 변경 -> dirty 컬렉션
+            em.find(Member.class, memberId).changeTeam(team);
+        });
+
+        Team team = transactionTemplate.execute(status -> em.find(Team.class, teamId));
+        assertThat(team.getVersion()).isEqualTo(0L); // @OptimisticLock(excluded = true)
+        assertThat(reload().getVersion()).isEqualTo(1L);
+    }
+}
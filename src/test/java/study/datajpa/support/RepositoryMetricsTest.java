@@ -0,0 +1,162 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class RepositoryMetricsTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired MockMvc mockMvc;
+    @PersistenceContext EntityManager em;
+
+    @BeforeEach
+    public void setUp() {
+        Team team = new Team("metricsTeam");
+        em.persist(team);
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Member("metrics", 10, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    /** 컨텍스트를 다른 테스트와 같이 쓰니 호출 전후 차이로 비교 **/
+    Snapshot snapshot(String repository, String method) {
+        Timer timer = meterRegistry.find(RepositoryMetricsInterceptor.METRIC)
+                .tag("repository", repository).tag("method", method).tag("error", "none")
+                .timer();
+        return new Snapshot(timer == null ? 0 : timer.count(),
+                summary("rows", repository, method),
+                summary("statements", repository, method),
+                summary("entities", repository, method));
+    }
+
+    DistributionSummary summary(String suffix, String repository, String method) {
+        return meterRegistry.find(RepositoryMetricsInterceptor.METRIC + "." + suffix)
+                .tag("repository", repository).tag("method", method)
+                .summary();
+    }
+
+    static class Snapshot {
+        final long calls;
+        final long rowsRecorded;
+        final double rows;
+        final double statements;
+        final double entities;
+
+        Snapshot(long calls, long rowsRecorded, double rows, double statements, double entities) {
+            this.calls = calls;
+            this.rowsRecorded = rowsRecorded;
+            this.rows = rows;
+            this.statements = statements;
+            this.entities = entities;
+        }
+
+        Snapshot(long calls, DistributionSummary rows, DistributionSummary statements, DistributionSummary entities) {
+            this(calls, rows == null ? 0 : rows.count(), total(rows), total(statements), total(entities));
+        }
+
+        static double total(DistributionSummary summary) {
+            return summary == null ? 0 : summary.totalAmount();
+        }
+
+        Snapshot minus(Snapshot before) {
+            return new Snapshot(calls - before.calls, rowsRecorded - before.rowsRecorded,
+                    rows - before.rows, statements - before.statements, entities - before.entities);
+        }
+    }
+
+    @Test
+    public void springDataRepository() {
+        Snapshot before = snapshot("MemberRepository", "findEntityGraphByUsername");
+
+        List<Member> members = memberRepository.findEntityGraphByUsername("metrics"); // 회원 + 팀 조인 한 번
+
+        Snapshot delta = snapshot("MemberRepository", "findEntityGraphByUsername").minus(before);
+        assertThat(delta.calls).isEqualTo(1);
+        assertThat(delta.rows).isEqualTo(members.size());
+        assertThat(delta.statements).isEqualTo(1);
+        assertThat(delta.entities).isEqualTo(4); // 회원 3 + 팀 1
+    }
+
+    @Test
+    public void inheritedMethodsAreTaggedWithTheRepositoryInterface() {
+        Snapshot before = snapshot("TeamRepository", "count");
+
+        assertThat(teamRepository.count()).isPositive();
+
+        Snapshot delta = snapshot("TeamRepository", "count").minus(before);
+        assertThat(delta.calls).isEqualTo(1);
+        assertThat(delta.rowsRecorded).isZero(); // 숫자는 행 수가 아님
+    }
+
+    @Test
+    public void handWrittenRepository() {
+        Snapshot before = snapshot("MemberJpaRepository", "findByUsername");
+
+        memberJpaRepository.findByUsername("metrics");
+
+        Snapshot delta = snapshot("MemberJpaRepository", "findByUsername").minus(before);
+        assertThat(delta.calls).isEqualTo(1);
+        assertThat(delta.rows).isEqualTo(3);
+        assertThat(delta.statements).isEqualTo(1);
+        assertThat(delta.entities).isEqualTo(3);
+    }
+
+    @Test
+    public void errorsAreTagged() {
+        assertThatThrownBy(() -> memberRepository.findById(null)).isInstanceOf(RuntimeException.class);
+
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.METRIC)
+                .tag("repository", "MemberRepository").tag("method", "findById")
+                .timers())
+                .anySatisfy(timer -> assertThat(timer.getId().getTag("error")).isNotEqualTo("none"));
+    }
+
+    @Test
+    public void hibernateAndHikariMetrics() {
+        memberRepository.findEntityGraphByUsername("metrics");
+
+        assertThat(meterRegistry.get("hibernate.statements").tag("status", "prepared").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.max").gauge().value()).isPositive();
+    }
+
+    @Test
+    public void actuatorEndpoint() throws Exception {
+        memberJpaRepository.findByUsername("metrics");
+
+        mockMvc.perform(get("/actuator/repositories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['MemberJpaRepository.findByUsername'].calls").isNumber())
+                .andExpect(jsonPath("$['MemberJpaRepository.findByUsername'].percentileMillis['p0.99']").isNumber())
+                .andExpect(jsonPath("$['MemberJpaRepository.findByUsername'].statementsPerCall").isNumber());
+    }
+}
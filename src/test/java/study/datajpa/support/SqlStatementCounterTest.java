@@ -0,0 +1,51 @@
+package study.datajpa.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.repository.MemberJpaRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SqlStatementCounterTest {
+
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void detectRepeatedSelects() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            for (int i = 0; i < 3; i++) {
+                memberJpaRepository.findByUsername("counter" + i); // 파라미터만 다른 같은 모양의 select
+            }
+
+            assertThat(scope.total()).isEqualTo(3);
+            assertThat(scope.repeatedSelects(3)).hasSize(1);
+            assertThat(scope.repeatedSelects(4)).isEmpty();
+        }
+    }
+
+    @Test
+    public void nestedScopes() {
+        try (SqlStatementCounter.Scope outer = SqlStatementCounter.start()) {
+            memberJpaRepository.count();
+            try (SqlStatementCounter.Scope inner = SqlStatementCounter.start()) {
+                memberJpaRepository.count();
+                assertThat(inner.total()).isEqualTo(1);
+            }
+            memberJpaRepository.count();
+            assertThat(outer.total()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void inListsWithDifferentSizesHaveSameShape() {
+        assertThat(SqlStatementCounter.shapeOf("select m from member m where m.id in (?, ?)"))
+                .isEqualTo(SqlStatementCounter.shapeOf("select m from member m\n where m.id in (?,?,?,?)"));
+    }
+}
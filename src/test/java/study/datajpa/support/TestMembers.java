@@ -0,0 +1,79 @@
+package study.datajpa.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberAggregateStore;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 커밋까지 해야 하는 테스트(@Transactional 롤백을 못 씀)의 데이터 정리 - @RegisterExtension TestMembers testMembers = new TestMembers();
+ * - 테스트가 커밋한 회원/팀 id 를 기억했다가 테스트가 끝나면(afterEach) 그 id 만 지움 -> 나이 범위로 지우다 다른 테스트 데이터까지 지우지 않음
+ * - 지운 뒤 그 컨텍스트의 MemberAggregateStore 를 다시 세고 ApproximateCountCache 의 전체 회원 수도 비움 (JPQL delete 라 이벤트가 없음)
+ * - 나이로 조회하는 테스트는 AGE 부터 씀 -> 애플리케이션이 저장하는 회원(MemberController.init, 나이 0 ~ 99)과 안 섞임
+ */
+public class TestMembers implements BeforeEachCallback, AfterEachCallback {
+
+    public static final int AGE = 100_000;
+
+    private final Set<Long> memberIds = new LinkedHashSet<>();
+    private final Set<Long> teamIds = new LinkedHashSet<>();
+    private ApplicationContext context;
+    private EntityManager em;
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void beforeEach(ExtensionContext extensionContext) {
+        context = SpringExtension.getApplicationContext(extensionContext);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    public Long trackMember(Long memberId) {
+        memberIds.add(memberId);
+        return memberId;
+    }
+
+    public <C extends Collection<Long>> C trackMembers(C ids) {
+        memberIds.addAll(ids);
+        return ids;
+    }
+
+    public Long trackTeam(Long teamId) {
+        teamIds.add(teamId);
+        return teamId;
+    }
+
+    @Override
+    public void afterEach(ExtensionContext extensionContext) {
+        if (memberIds.isEmpty() && teamIds.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> { // 이미 지워진 id 는 그냥 0건
+                if (!memberIds.isEmpty()) {
+                    em.createQuery("delete from Member m where m.id in :ids").setParameter("ids", memberIds).executeUpdate();
+                }
+                if (!teamIds.isEmpty()) {
+                    em.createQuery("delete from Team t where t.id in :ids").setParameter("ids", teamIds).executeUpdate();
+                }
+            });
+        } finally {
+            memberIds.clear();
+            teamIds.clear();
+            context.getBean(MemberAggregateStore.class).reconcile();
+            context.getBean(ApproximateCountCache.class).invalidate(MemberRepository.MEMBER_COUNT);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class TransactionScopedAuditingTest {
+
+    @Autowired AuditorAware<String> auditorProvider;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void auditorResolvedOncePerRequest() {
+        // @SpringBootTest 는 테스트 스레드에 MockHttpServletRequest 를 바인딩해 둠 -> 요청 하나로 봄
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Optional<String> first = tx.execute(status -> auditorProvider.getCurrentAuditor());
+        Optional<String> second = tx.execute(status -> auditorProvider.getCurrentAuditor());
+
+        assertThat(first).isPresent().isSameAs(second); // 트랜잭션이 달라도 같은 요청이면 같은 사람
+    }
+
+    @Test
+    public void auditorResolvedOncePerTransaction() {
+        RequestContextHolder.resetRequestAttributes(); // 요청 밖 (배치, 스케줄러)
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        List<Optional<String>> first = tx.execute(status ->
+                List.of(auditorProvider.getCurrentAuditor(), auditorProvider.getCurrentAuditor()));
+        Optional<String> second = tx.execute(status -> auditorProvider.getCurrentAuditor());
+
+        assertThat(first.get(0)).isPresent().isSameAs(first.get(1)); // 같은 트랜잭션 -> 같은 인스턴스 (추가 할당 없음)
+        assertThat(second).isPresent().isNotEqualTo(first.get(0)); // 트랜잭션이 바뀌면 다시 구함
+    }
+
+    @Test
+    public void oneTimestampPerFlush() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        List<Member> members = tx.execute(status -> {
+            Member member1 = memberRepository.save(new Member("audit1", 10));
+            Member member2 = memberRepository.save(new Member("audit2", 10));
+            memberRepository.flush(); // 첫 번째 flush
+            sleep();
+            Member member3 = memberRepository.save(new Member("audit3", 10));
+            member1.setAge(11); // 두 번째 flush 에서 update
+            return List.of(member1, member2, member3); // 커밋할 때 두 번째 flush
+        });
+
+        try {
+            Member member1 = members.get(0);
+            Member member2 = members.get(1);
+            Member member3 = members.get(2);
+            assertThat(member1.getCreatedDate()).isNotNull();
+            assertThat(member2.getCreatedDate()).isEqualTo(member1.getCreatedDate()); // 같은 flush -> 같은 시각
+            assertThat(member2.getLastModifiedDate()).isEqualTo(member2.getCreatedDate());
+            assertThat(member3.getCreatedDate()).isAfter(member1.getCreatedDate()); // 다음 flush -> 새 시각
+            assertThat(member1.getLastModifiedDate()).isEqualTo(member3.getCreatedDate());
+        } finally {
+            memberRepository.deleteAllInBatch(members);
+        }
+    }
+
+    @Test
+    public void flushesDoNotAccumulateSynchronizations() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        List<Member> members = tx.execute(status -> {
+            List<Member> saved = new ArrayList<>();
+            saved.add(memberRepository.save(new Member("audit6", 10)));
+            memberRepository.flush();
+            int synchronizations = TransactionSynchronizationManager.getSynchronizations().size();
+            for (int i = 0; i < 10; i++) {
+                saved.add(memberRepository.save(new Member("audit6", 10)));
+                memberRepository.flush(); // flush 마다 새 시각
+            }
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(synchronizations);
+            return saved;
+        });
+
+        try {
+            assertThat(members).extracting(Member::getCreatedDate).doesNotContainNull();
+        } finally {
+            memberRepository.deleteAllInBatch(members);
+        }
+    }
+
+    @Test
+    public void autoFlushBeforeQueryStartsNewTimestamp() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        List<Member> members = tx.execute(status -> {
+            Member member1 = memberRepository.save(new Member("audit4", 10));
+            memberRepository.findEntityGraphByUsername("audit4"); // 쿼리 전 자동 flush
+            sleep();
+            Member member2 = memberRepository.save(new Member("audit5", 10));
+            return List.of(member1, member2);
+        });
+
+        try {
+            assertThat(members.get(1).getCreatedDate()).isAfter(members.get(0).getCreatedDate());
+        } finally {
+            memberRepository.deleteAllInBatch(members);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}